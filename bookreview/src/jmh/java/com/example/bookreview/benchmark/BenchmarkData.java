@@ -0,0 +1,127 @@
+package com.example.bookreview.benchmark;
+
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.entity.Comment;
+import com.example.bookreview.entity.Review;
+import com.example.bookreview.entity.User;
+import com.example.bookreview.repository.projection.CommentCountView;
+import com.example.bookreview.repository.projection.CommentView;
+import com.example.bookreview.repository.projection.ReviewView;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Детерминированные наборы сущностей и проекций для бенчмарков
+ */
+final class BenchmarkData {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private BenchmarkData() {
+    }
+
+    static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = new Book();
+            book.setId((long) i + 1);
+            book.setTitle("Книга " + i);
+            book.setAuthor("Автор " + (i % 50));
+            book.setDescription("Описание книги " + i);
+            // у каждой третьей книги нет обложки, сервис подставляет обложку по умолчанию
+            book.setCoverUrl(i % 3 == 0 ? null : "https://example.com/cover/" + i + ".jpg");
+            book.setIsActive(true);
+            books.add(book);
+        }
+        return books;
+    }
+
+    static List<Review> reviews(int count, int commentsPerReview) {
+        Book book = books(1).get(0);
+        List<Review> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Review review = new Review();
+            review.setId((long) i + 1);
+            review.setText("Рецензия " + i);
+            review.setCreatedAt(BASE.minusMinutes(i));
+            review.setUpdatedAt(BASE.minusMinutes(i));
+            review.setLikesCount(i % 17);
+            review.setUser(user(i));
+            review.setBook(book);
+            for (int c = 0; c < commentsPerReview; c++) {
+                review.getComments().add(comment(review, i * commentsPerReview + c));
+            }
+            reviews.add(review);
+        }
+        return reviews;
+    }
+
+    static List<Comment> comments(int count) {
+        Review review = reviews(1, 0).get(0);
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            comments.add(comment(review, i));
+        }
+        return comments;
+    }
+
+    static List<ReviewView> reviewViews(int count) {
+        List<ReviewView> views = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime createdAt = BASE.minusMinutes(i);
+            views.add(new ReviewRow((long) i + 1, "Рецензия " + i, "user" + i, i % 17, createdAt, createdAt));
+        }
+        return views;
+    }
+
+    static List<CommentView> commentViews(List<Long> reviewIds, int perReview) {
+        List<CommentView> views = new ArrayList<>(reviewIds.size() * perReview);
+        long id = 1;
+        for (Long reviewId : reviewIds) {
+            for (int c = 0; c < perReview; c++) {
+                views.add(new CommentRow(id++, "Комментарий " + c, BASE.minusSeconds(c), "user" + c, reviewId));
+            }
+        }
+        return views;
+    }
+
+    static List<CommentCountView> commentCounts(List<Long> reviewIds, long count) {
+        List<CommentCountView> counts = new ArrayList<>(reviewIds.size());
+        for (Long reviewId : reviewIds) {
+            counts.add(new CommentCountRow(reviewId, count));
+        }
+        return counts;
+    }
+
+    private static User user(int i) {
+        User user = new User();
+        user.setId((long) i + 1);
+        user.setUsername("user" + i);
+        user.setRole("ROLE_USER");
+        return user;
+    }
+
+    private static Comment comment(Review review, int i) {
+        Comment comment = new Comment();
+        comment.setId((long) i + 1);
+        comment.setText("Комментарий " + i);
+        comment.setCreatedAt(BASE.minusSeconds(i));
+        comment.setUpdatedAt(BASE.minusSeconds(i));
+        comment.setUser(user(i % 100));
+        comment.setReview(review);
+        return comment;
+    }
+
+    record ReviewRow(Long getId, String getText, String getUsername, long getLikesCount,
+                     LocalDateTime getCreatedAt, LocalDateTime getUpdatedAt) implements ReviewView {
+    }
+
+    record CommentRow(Long getId, String getText, LocalDateTime getCreatedAt, String getUserUsername,
+                      Long getReviewId) implements CommentView {
+    }
+
+    record CommentCountRow(Long getReviewId, long getCount) implements CommentCountView {
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.bookreview.benchmark;
+
+import com.example.bookreview.dto.BookDto;
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.mapper.BookMapperImpl;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.search.BookSearch;
+import com.example.bookreview.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка страницы каталога и результатов поиска в DTO (без кеша и базы)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookServiceBenchmark {
+
+    @Param({"9", "100", "1000"})
+    private int pageSize;
+
+    private BookService bookService;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        List<Book> books = BenchmarkData.books(pageSize);
+        pageable = PageRequest.of(0, pageSize);
+        Page<Book> page = new PageImpl<>(books, pageable, pageSize * 10L);
+
+        BookRepository bookRepository = RepositoryStubs.stub(BookRepository.class,
+                Map.of("findByIsActiveTrue", args -> page));
+        BookSearch bookSearch = new BookSearch() {
+            @Override
+            public Page<Book> searchByTitleOrAuthor(String query, Pageable pageable) {
+                return page;
+            }
+
+            @Override
+            public Page<Book> searchByAuthor(String author, Pageable pageable) {
+                return page;
+            }
+        };
+        bookService = new BookService(bookRepository, new BookMapperImpl(), bookSearch);
+    }
+
+    @Benchmark
+    public Page<BookDto> getAllBooks() {
+        return bookService.getAllBooks(pageable);
+    }
+
+    @Benchmark
+    public Page<BookDto> searchBooks() {
+        return bookService.searchBooks("Книга", pageable);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.bookreview.benchmark;
+
+import com.example.bookreview.dto.CommentDto;
+import com.example.bookreview.dto.ReviewDto;
+import com.example.bookreview.entity.Comment;
+import com.example.bookreview.entity.Review;
+import com.example.bookreview.mapper.CommentMapper;
+import com.example.bookreview.mapper.CommentMapperImpl;
+import com.example.bookreview.mapper.ReviewMapper;
+import com.example.bookreview.mapper.ReviewMapperImpl;
+import com.example.bookreview.repository.projection.CommentView;
+import com.example.bookreview.repository.projection.ReviewView;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Списочные конвертации MapStruct: сущности и проекции в DTO
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    private int size;
+
+    private final ReviewMapper reviewMapper = new ReviewMapperImpl();
+    private final CommentMapper commentMapper = new CommentMapperImpl();
+
+    private List<Review> reviews;
+    private List<Comment> comments;
+    private List<ReviewView> reviewViews;
+    private List<CommentView> commentViews;
+
+    @Setup
+    public void setUp() {
+        reviews = BenchmarkData.reviews(size, 0);
+        comments = BenchmarkData.comments(size);
+        reviewViews = BenchmarkData.reviewViews(size);
+        commentViews = BenchmarkData.commentViews(List.of(1L), size);
+    }
+
+    @Benchmark
+    public List<ReviewDto> reviewEntities() {
+        return reviewMapper.toDtoList(reviews);
+    }
+
+    @Benchmark
+    public List<CommentDto> commentEntities() {
+        return commentMapper.toDtoList(comments);
+    }
+
+    @Benchmark
+    public List<ReviewDto> reviewViews() {
+        return reviewViews.stream().map(reviewMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<CommentDto> commentViews() {
+        return commentViews.stream().map(commentMapper::toDto).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bookreview.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Заглушки Spring Data репозиториев без базы и без Mockito, чтобы в замер попадал только код сервиса
+ */
+final class RepositoryStubs {
+
+    private RepositoryStubs() {
+    }
+
+    static <T> T stub(Class<T> repository, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (self, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.apply(args);
+                    }
+                    return switch (method.getName()) {
+                        case "toString" -> repository.getSimpleName() + " stub";
+                        case "hashCode" -> System.identityHashCode(self);
+                        case "equals" -> self == args[0];
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+        return repository.cast(proxy);
+    }
+
+    static <T> T unused(Class<T> repository) {
+        return stub(repository, Map.of());
+    }
+}
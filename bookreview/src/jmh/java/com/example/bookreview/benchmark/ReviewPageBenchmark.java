@@ -0,0 +1,90 @@
+package com.example.bookreview.benchmark;
+
+import com.example.bookreview.dto.ReviewPage;
+import com.example.bookreview.mapper.CommentMapperImpl;
+import com.example.bookreview.mapper.ReviewMapperImpl;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.CommentRepository;
+import com.example.bookreview.repository.LikeRepository;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.repository.projection.ReviewView;
+import com.example.bookreview.service.ReviewService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Limit;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сборка страницы рецензий книги: маппинг проекций, отметки лайков, превью и счётчики комментариев.
+ * Параметра «число рецензий» нет: репозиторий отдаёт не больше страницы (LIMIT 11), а общее число
+ * приходит готовым из countByBookId, поэтому работа Java-кода от размера книги не зависит.
+ * Рост числа рецензий влияет только на SQL, а его стаб не измеряет (см. EndpointStatementBudgetTest и loadTest).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReviewPageBenchmark {
+
+    private static final long BOOK_ID = 1L;
+    private static final long USER_ID = 42L;
+    private static final int PAGE_ROWS = 11;
+    private static final long TOTAL_REVIEWS = 50_000L;
+
+    private ReviewService reviewService;
+
+    @Setup
+    public void setUp() {
+        // полная страница и ещё одна строка: проверяется и ветка с курсором следующей страницы
+        List<ReviewView> views = BenchmarkData.reviewViews(PAGE_ROWS);
+
+        ReviewRepository reviewRepository = RepositoryStubs.stub(ReviewRepository.class, Map.of(
+                "findViewsByBookId", args -> views.subList(0, Math.min(views.size(), ((Limit) args[1]).max())),
+                "countByBookId", args -> TOTAL_REVIEWS));
+        LikeRepository likeRepository = RepositoryStubs.stub(LikeRepository.class, Map.of(
+                "findLikedReviewIds", args -> likedEveryOther((Collection<?>) args[1])));
+        CommentRepository commentRepository = RepositoryStubs.stub(CommentRepository.class, Map.of(
+                "findLatestViewsByReviewIds", args -> BenchmarkData.commentViews(reviewIds(args[0]), (int) args[1]),
+                "countByReviewIds", args -> BenchmarkData.commentCounts(reviewIds(args[0]), 5)));
+
+        reviewService = new ReviewService(
+                reviewRepository,
+                RepositoryStubs.unused(BookRepository.class),
+                RepositoryStubs.unused(UserRepository.class),
+                likeRepository,
+                commentRepository,
+                new ReviewMapperImpl(),
+                new CommentMapperImpl(),
+                event -> {});
+    }
+
+    @Benchmark
+    public ReviewPage anonymous() {
+        return reviewService.getReviewPage(BOOK_ID, null, null);
+    }
+
+    @Benchmark
+    public ReviewPage withLikedFlags() {
+        return reviewService.getReviewPage(BOOK_ID, USER_ID, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> reviewIds(Object ids) {
+        return (List<Long>) ids;
+    }
+
+    private static Set<Long> likedEveryOther(Collection<?> ids) {
+        return ids.stream()
+                .map(Long.class::cast)
+                .filter(id -> id % 2 == 0)
+                .collect(Collectors.toSet());
+    }
+}
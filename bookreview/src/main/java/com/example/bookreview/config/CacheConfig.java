@@ -0,0 +1,19 @@
+package com.example.bookreview.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Кэш каталога (Caffeine, размер и TTL задаются в spring.cache.caffeine.spec).
+ * Статистика попаданий публикуется в actuator как cache.gets{result=hit|miss}.
+ * Кэш снаружи транзакций сервисов: сброс — после коммита, попадание не открывает транзакцию и не берёт соединение.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String AUTHORS = "authors";
+    public static final String BOOKS = "books";
+    public static final String CATALOG_PAGES = "catalogPages";
+}
@@ -0,0 +1,37 @@
+package com.example.bookreview.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Тип базы данных, определённый один раз при старте. Позволяет выбирать
+ * PostgreSQL-специфичные запросы, сохраняя переносимый путь для H2.
+ */
+@Slf4j
+@Component
+public class DatabasePlatform {
+
+    private final boolean postgres;
+
+    public DatabasePlatform(DataSource dataSource) {
+        this.postgres = "PostgreSQL".equalsIgnoreCase(detectProduct(dataSource));
+    }
+
+    public boolean isPostgres() {
+        return postgres;
+    }
+
+    private static String detectProduct(DataSource dataSource) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            log.warn("Cannot detect database product: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.bookreview.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Переводит первичные ключи с SERIAL/IDENTITY на pooled-последовательности сущностей.
+ * Выполняется после обновления схемы Hibernate и до старта веб-сервера; повторный запуск ничего не меняет.
+ * Для каждой таблицы: последовательность с шагом {@link #ALLOCATION_SIZE} сдвигается за MAX(id),
+ * а DEFAULT столбца id ставится на неё же, чтобы нативные INSERT без id (лайки, генератор данных) продолжали работать.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory")
+public class IdSequenceMigration {
+
+    // совпадает с allocationSize в @SequenceGenerator сущностей
+    public static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users", "users_seq",
+            "book", "book_seq",
+            "review", "review_seq",
+            "comments", "comments_seq",
+            "likes", "likes_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    @PostConstruct
+    public void migrate() {
+        SEQUENCES.forEach((table, sequence) -> {
+            if (databasePlatform.isPostgres()) {
+                migratePostgres(table, sequence);
+            } else {
+                migrateH2(table, sequence);
+            }
+        });
+        log.info("Id sequences ready: {}", SEQUENCES.values());
+    }
+
+    private void migratePostgres(String table, String sequence) {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " INCREMENT BY " + ALLOCATION_SIZE);
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + ALLOCATION_SIZE);
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        // только вперёд: не отдаём повторно блоки, уже выбранные работающими экземплярами
+        jdbcTemplate.queryForList("SELECT setval('" + sequence + "', m) FROM (SELECT MAX(id) AS m FROM " + table + ") t "
+                + "WHERE m >= (SELECT last_value FROM " + sequence + ")");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+        // последовательность от SERIAL больше никем не используется
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS " + table + "_id_seq");
+    }
+
+    private void migrateH2(String table, String sequence) {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " INCREMENT BY " + ALLOCATION_SIZE);
+        if (isIdentity(table)) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId != null) {
+            // pooled: значение последовательности — верхняя граница блока
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + ALLOCATION_SIZE));
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT NEXT VALUE FOR " + sequence);
+    }
+
+    private boolean isIdentity(String table) {
+        String identity = jdbcTemplate.queryForObject(
+                "SELECT IS_IDENTITY FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = ? AND COLUMN_NAME = 'ID'",
+                String.class, table.toUpperCase());
+        return "YES".equals(identity);
+    }
+}
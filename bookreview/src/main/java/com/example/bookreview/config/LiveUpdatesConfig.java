@@ -0,0 +1,26 @@
+package com.example.bookreview.config;
+
+import com.example.bookreview.live.BookEventHub;
+import com.example.bookreview.repository.ReviewRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * SSE-обновления страниц книг: GET /books/{id}/events.
+ */
+@Configuration
+public class LiveUpdatesConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public BookEventHub bookEventHub(ReviewRepository reviewRepository,
+                                     @Value("${bookreview.live.max-connections:1000}") int maxConnections,
+                                     @Value("${bookreview.live.timeout:30m}") Duration timeout,
+                                     @Value("${bookreview.live.flush-interval:1s}") Duration flushInterval,
+                                     MeterRegistry meterRegistry) {
+        return new BookEventHub(reviewRepository, maxConnections, timeout, flushInterval, meterRegistry);
+    }
+}
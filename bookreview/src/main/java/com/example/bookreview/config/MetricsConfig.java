@@ -0,0 +1,46 @@
+package com.example.bookreview.config;
+
+import com.example.bookreview.metrics.SqlStatementCounter;
+import com.example.bookreview.metrics.SqlStatementMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Метрики, которых нет в автоконфигурации: число SQL-запросов на HTTP-запрос.
+ * Контроллеры (http.server.requests), репозитории (spring.data.repository.invocations),
+ * пул Hikari и кэши Caffeine инструментируются Spring Boot, сервисы — через @Timed.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    // первым, чтобы собственный инспектор в тестах мог его заменить
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter counter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+    // отдельный бин, а не implements WebMvcConfigurer: иначе конфигурация попадёт в срез @WebMvcTest без MeterRegistry
+    @Bean
+    public WebMvcConfigurer sqlStatementMetricsConfigurer(SqlStatementCounter counter, MeterRegistry meterRegistry) {
+        SqlStatementMetricsInterceptor interceptor = new SqlStatementMetricsInterceptor(counter, meterRegistry);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor);
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.bookreview.config;
+
+import com.example.bookreview.security.BcryptCostCalibrator;
+import com.example.bookreview.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Slf4j
+@Configuration
+public class PasswordHashingConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(@Value("${bookreview.security.bcrypt.cost:0}") int cost,
+                                                  @Value("${bookreview.security.bcrypt.target-latency:250ms}") Duration targetLatency,
+                                                  @Value("${bookreview.security.bcrypt.min-cost:12}") int minCost,
+                                                  @Value("${bookreview.security.bcrypt.max-cost:14}") int maxCost,
+                                                  @Value("${bookreview.security.hashing.threads:0}") int threads,
+                                                  @Value("${bookreview.security.hashing.queue-capacity:64}") int queueCapacity,
+                                                  @Value("${bookreview.security.hashing.queue-timeout:5s}") Duration queueTimeout,
+                                                  MeterRegistry meterRegistry) {
+        // cost = 0: подбираем под target-latency при старте
+        int effectiveCost = cost > 0 ? cost : BcryptCostCalibrator.calibrate(targetLatency, minCost, maxCost);
+        // по умолчанию хешированию отдаём не больше половины ядер
+        int effectiveThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        log.info("Password hashing: cost {}, {} threads, queue {}", effectiveCost, effectiveThreads, queueCapacity);
+        return new BoundedPasswordEncoder(effectiveCost, effectiveThreads, queueCapacity, queueTimeout, meterRegistry);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.bookreview.config;
+
+import com.example.bookreview.datasource.ReplicaProperties;
+import com.example.bookreview.datasource.RecentWriterInterceptor;
+import com.example.bookreview.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Маршрутизация read-only транзакций на реплики. Включается, если задана хотя бы одна
+ * bookreview.datasource.replicas[i].url; иначе работает обычный DataSource из автоконфигурации.
+ * LazyConnectionDataSourceProxy берёт физическое соединение только при первом запросе, когда
+ * транзакция уже пометила его readOnly, и в этом случае идёт в {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(name = "bookreview.datasource.replicas[0].url")
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPool(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryPool,
+                                                             DataSourceProperties properties,
+                                                             ReplicaProperties replicaProperties,
+                                                             MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaProperties.Replica replica : replicaProperties.getReplicas()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + replicas.size());
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword());
+            pool.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            // пул не должен падать при старте, если реплика недоступна: её отметит проверка здоровья
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricRegistry(meterRegistry);
+            replicas.add(pool);
+        }
+        return new ReplicaRoutingDataSource(primaryPool, replicas,
+                replicaProperties.getMaxLag(), replicaProperties.getReadYourWritesWindow(), meterRegistry);
+    }
+
+    // основной DataSource приложения (JPA, JdbcTemplate, журнал медленных запросов)
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryPool, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryPool);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    // авторы записей отмечаются по HTTP-запросу: их соединения идут мимо маршрутизации
+    @Bean
+    public WebMvcConfigurer recentWriterConfigurer(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        RecentWriterInterceptor interceptor = new RecentWriterInterceptor(replicaRoutingDataSource);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor);
+            }
+        };
+    }
+}
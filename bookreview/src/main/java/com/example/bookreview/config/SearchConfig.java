@@ -0,0 +1,38 @@
+package com.example.bookreview.config;
+
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.search.BookSearch;
+import com.example.bookreview.search.LikeBookSearch;
+import com.example.bookreview.search.TrigramBookSearch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Slf4j
+@Configuration
+public class SearchConfig {
+
+    @Bean
+    public BookSearch bookSearch(@Value("${bookreview.search.backend:auto}") String backend,
+                                 DatabasePlatform databasePlatform,
+                                 BookRepository bookRepository,
+                                 JdbcTemplate jdbcTemplate) {
+        boolean trigram = switch (backend) {
+            case "trigram" -> true;
+            case "like" -> false;
+            default -> databasePlatform.isPostgres();
+        };
+
+        if (!trigram) {
+            log.info("Book search backend: LIKE");
+            return new LikeBookSearch(bookRepository);
+        }
+
+        log.info("Book search backend: pg_trgm");
+        TrigramBookSearch search = new TrigramBookSearch(bookRepository, jdbcTemplate);
+        search.ensureIndexes();
+        return search;
+    }
+}
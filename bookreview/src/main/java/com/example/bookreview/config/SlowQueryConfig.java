@@ -0,0 +1,55 @@
+package com.example.bookreview.config;
+
+import com.example.bookreview.metrics.SlowQueryEndpoint;
+import com.example.bookreview.metrics.SlowQueryListener;
+import com.example.bookreview.metrics.SlowQueryLog;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Журнал медленных запросов вместо сплошного логирования org.hibernate.SQL:
+ * DataSource оборачивается datasource-proxy, запросы дольше порога попадают в /actuator/slowqueries.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bookreview.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public SlowQueryLog slowQueryLog(@Value("${bookreview.slow-query.threshold:200ms}") Duration threshold,
+                                     @Value("${bookreview.slow-query.capacity:100}") int capacity,
+                                     @Value("${bookreview.slow-query.explain:false}") boolean explain) {
+        return new SlowQueryLog(threshold, capacity, explain);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+
+    // static: пост-процессор создаётся раньше остальных бинов конфигурации
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourceWrapper(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // только основной DataSource: пулы primary и реплик за маршрутизатором уже внутри него
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new SlowQueryListener(slowQueryLog.getObject(), dataSource))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
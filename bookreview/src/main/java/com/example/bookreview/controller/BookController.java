@@ -1,25 +1,38 @@
 package com.example.bookreview.controller;
 
 import com.example.bookreview.dto.BookCreateDto;
+import com.example.bookreview.dto.BookCursorPage;
 import com.example.bookreview.dto.BookDto;
 import com.example.bookreview.dto.ReviewCreateDto;
-import com.example.bookreview.dto.ReviewDto;
+import com.example.bookreview.dto.ReviewPage;
+import com.example.bookreview.repository.projection.BookVersion;
+import com.example.bookreview.security.UserPrincipal;
 import com.example.bookreview.service.BookService;
 import com.example.bookreview.service.ReviewService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
 
 import jakarta.validation.Valid;
 
 import java.security.Principal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Controller
 @RequiredArgsConstructor
@@ -84,14 +97,23 @@ public class BookController {
     @GetMapping("/{id}")
     public String viewBook(@PathVariable Long id,
                            @RequestParam(required = false) String success,
-                           Model model, Principal principal) {
+                           Model model, @AuthenticationPrincipal UserPrincipal currentUser,
+                           ServletWebRequest webRequest, HttpServletResponse response) {
+        BookVersion version = bookService.getBookVersion(id);
+        if (version != null && isNotModified(webRequest, response,
+                "book-" + id + "-" + version.version(), version.lastModified())) {
+            return null;
+        }
+
         BookDto book = bookService.getBookById(id);
 
-        String username = principal != null ? principal.getName() : null;
-        List<ReviewDto> reviews = reviewService.getReviewsForBook(id, username);
+        Long userId = currentUser != null ? currentUser.getId() : null;
+        ReviewPage reviewPage = reviewService.getReviewPage(id, userId, null);
 
         model.addAttribute("book", book);
-        model.addAttribute("reviews", reviews);
+        model.addAttribute("reviews", reviewPage.getContent());
+        model.addAttribute("reviewsCount", reviewPage.getTotalCount());
+        model.addAttribute("nextReviewsCursor", reviewPage.getNextCursor());
         model.addAttribute("reviewCreateDto", new ReviewCreateDto());
 
         if (success != null) {
@@ -101,12 +123,49 @@ public class BookController {
         return "books/view";
     }
 
+    // фрагмент "Показать ещё" для ленты рецензий
+    @GetMapping("/{id}/reviews")
+    public String loadMoreReviews(@PathVariable Long id,
+                                  @RequestParam String after,
+                                  Model model, @AuthenticationPrincipal UserPrincipal currentUser) {
+        Long userId = currentUser != null ? currentUser.getId() : null;
+        ReviewPage reviewPage = reviewService.getReviewPage(id, userId, after);
+
+        model.addAttribute("bookId", id);
+        model.addAttribute("reviews", reviewPage.getContent());
+        model.addAttribute("nextReviewsCursor", reviewPage.getNextCursor());
+        return "books/reviews :: reviewPage";
+    }
+
     @GetMapping
     public String listBooks(@RequestParam(required = false) String search,
                             @RequestParam(required = false) String author,
                             @RequestParam(required = false) String success,
                             @RequestParam(defaultValue = "0") int page,
-                            Model model, Principal principal) {
+                            @RequestParam(required = false) String after,
+                            @RequestParam(required = false) String before,
+                            Model model, ServletWebRequest webRequest, HttpServletResponse response) {
+
+        Instant catalogModified = bookService.getCatalogLastModified();
+        if (catalogModified != null && isNotModified(webRequest, response,
+                "catalog-" + catalogModified.toEpochMilli(), catalogModified)) {
+            return null;
+        }
+
+        boolean filtered = (search != null && !search.trim().isEmpty()) || (author != null && !author.equals("all"));
+        if (!filtered && (after != null || before != null || bookService.isKeysetPaginationPreferred())) {
+            BookCursorPage cursorPage = bookService.getBooksByCursor(after, before);
+
+            model.addAttribute("books", cursorPage.getContent());
+            model.addAttribute("authors", bookService.getAllAuthors());
+            model.addAttribute("nextCursor", cursorPage.getNextCursor());
+            model.addAttribute("prevCursor", cursorPage.getPrevCursor());
+
+            if (success != null) {
+                model.addAttribute("successMessage", "Книга успешно добавлена!");
+            }
+            return "books/list";
+        }
 
         Pageable pageable = PageRequest.of(page, bookService.getBooksPerPage(), Sort.by("title").ascending());
         Page<BookDto> books;
@@ -133,10 +192,27 @@ public class BookController {
             model.addAttribute("successMessage", "Книга успешно добавлена!");
         }
 
-        if (principal != null) {
-            System.out.println("Current user: " + principal.getName());
-        }
-
         return "books/list";
     }
-}
\ No newline at end of file
+
+    /**
+     * Условный GET: 304 без запросов к рецензиям и без рендеринга шаблона.
+     * Страница зависит от пользователя и CSRF-токена сессии, поэтому они входят в ETag,
+     * а ответ кэшируется только браузером с обязательной перепроверкой.
+     */
+    private boolean isNotModified(ServletWebRequest webRequest, HttpServletResponse response,
+                                  String version, Instant lastModified) {
+        Map<String, ?> flash = RequestContextUtils.getInputFlashMap(webRequest.getRequest());
+        if (flash != null && !flash.isEmpty()) {
+            return false;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+
+        Principal principal = webRequest.getUserPrincipal();
+        HttpSession session = webRequest.getRequest().getSession(false);
+        String sessionId = session != null ? session.getId() : null;
+        String viewer = Integer.toHexString(Objects.hash(principal != null ? principal.getName() : null, sessionId));
+        String etag = "W/\"" + version + "-" + viewer + "\"";
+        return webRequest.checkNotModified(etag, lastModified != null ? lastModified.toEpochMilli() : -1);
+    }
+}
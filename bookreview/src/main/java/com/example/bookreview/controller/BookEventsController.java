@@ -0,0 +1,22 @@
+package com.example.bookreview.controller;
+
+import com.example.bookreview.live.BookEventHub;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequiredArgsConstructor
+public class BookEventsController {
+
+    private final BookEventHub bookEventHub;
+
+    // без обращения к БД: при open-in-view соединение держалось бы всё время жизни потока
+    @GetMapping(path = "/books/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable Long id) {
+        return bookEventHub.subscribe(id);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.bookreview.controller;
+
+import com.example.bookreview.dto.BookImportProgress;
+import com.example.bookreview.service.BookImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/admin/books")
+public class BookImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final BookImportService bookImportService;
+    private final ObjectMapper objectMapper;
+
+    // страница загрузки: app.js шлёт файл с CSRF-токеном и показывает прогресс
+    @GetMapping("/import")
+    public String importPage() {
+        return "admin/import";
+    }
+
+    // тело читается потоком без multipart, поэтому файл не буферизуется ни в памяти, ни на диске.
+    // Обычная сессия администратора с CSRF: вне браузера нужны cookie JSESSIONID после /perform_login
+    // и заголовок X-CSRF-TOKEN со страницы импорта
+    @PostMapping(value = "/import", consumes = {"text/csv", NDJSON})
+    public void importBooks(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BookImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? BookImportService.Format.CSV
+                : BookImportService.Format.NDJSON;
+
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream output = response.getOutputStream();
+
+        bookImportService.importBooks(request.getInputStream(), format, progress -> write(output, progress));
+    }
+
+    // по строке NDJSON на пакет, со сбросом буфера, чтобы клиент видел прогресс сразу
+    private void write(OutputStream output, BookImportProgress progress) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(progress));
+            output.write('\n');
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,16 +2,20 @@ package com.example.bookreview.controller;
 
 import com.example.bookreview.dto.CommentCreateDto;
 import com.example.bookreview.dto.CommentDto;
+import com.example.bookreview.security.UserPrincipal;
 import com.example.bookreview.service.CommentService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
 import java.util.List;
 
+@Slf4j
 @Controller
 @RequiredArgsConstructor
 public class CommentController {
@@ -21,33 +25,45 @@ public class CommentController {
     @PostMapping("/comments/add")
     public String addComment(@RequestParam Long reviewId,
                              @RequestParam String text,
-                             Principal principal) {
+                             @AuthenticationPrincipal UserPrincipal currentUser) {
 
         CommentCreateDto commentDto = new CommentCreateDto();
         commentDto.setReviewId(reviewId);
         commentDto.setText(text);
 
-        commentService.addComment(commentDto, principal.getName());
+        commentService.addComment(commentDto, currentUser);
 
         Long bookId = commentService.getBookIdByReviewId(reviewId);
         return "redirect:/books/" + bookId + "#review-" + reviewId;
     }
 
+    // запрос из app.js: вместо редиректа и полной перерисовки страницы — только новый комментарий
+    @PostMapping(path = "/comments/add", headers = "X-Requested-With=XMLHttpRequest")
+    public String addCommentFragment(@RequestParam Long reviewId,
+                                     @RequestParam String text,
+                                     @AuthenticationPrincipal UserPrincipal currentUser,
+                                     Model model) {
+        CommentCreateDto commentDto = new CommentCreateDto();
+        commentDto.setReviewId(reviewId);
+        commentDto.setText(text);
+
+        model.addAttribute("comment", commentService.addComment(commentDto, currentUser));
+        return "books/reviews :: commentItem";
+    }
+
 
     @PostMapping("/comments/{id}/delete")
     public String deleteComment(@PathVariable Long id,
-                                Principal principal) {
+                                @AuthenticationPrincipal UserPrincipal currentUser) {
         try {
-            String username = principal.getName();
-
             Long reviewId = commentService.getReviewIdByCommentId(id);
             Long bookId = commentService.getBookIdByReviewId(reviewId);
 
-            commentService.deleteComment(id, username);
+            commentService.deleteComment(id, currentUser);
 
             return "redirect:/books/" + bookId + "#review-" + reviewId;
         } catch (RuntimeException e) {
-            System.err.println("Error deleting comment: " + e.getMessage());
+            log.debug("Comment {} not deleted: {}", id, e.getMessage());
             return "redirect:/books?error=comment_not_found";
         }
     }
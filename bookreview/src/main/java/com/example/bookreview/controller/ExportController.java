@@ -0,0 +1,50 @@
+package com.example.bookreview.controller;
+
+import com.example.bookreview.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/admin/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    // пишем прямо в поток ответа из потока запроса: запись блокируется, пока клиент не дочитает
+    @GetMapping("/{dataset:books|reviews|comments}")
+    public void export(@PathVariable String dataset,
+                       @RequestParam(defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = "csv".equalsIgnoreCase(format)
+                ? ExportService.Format.CSV
+                : ExportService.Format.NDJSON;
+
+        response.setContentType(exportFormat == ExportService.Format.CSV ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(dataset + (exportFormat == ExportService.Format.CSV ? ".csv" : ".ndjson"))
+                .build().toString());
+
+        OutputStream output = response.getOutputStream();
+        long rows = switch (dataset) {
+            case "books" -> exportService.exportBooks(exportFormat, output);
+            case "reviews" -> exportService.exportReviews(exportFormat, output);
+            default -> exportService.exportComments(exportFormat, output);
+        };
+        log.info("Exported {} {} as {}", rows, dataset, exportFormat);
+    }
+}
@@ -2,15 +2,17 @@ package com.example.bookreview.controller;
 
 import com.example.bookreview.entity.Review;
 import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.security.UserPrincipal;
 import com.example.bookreview.service.LikeService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 
-import java.security.Principal;
-
+@Slf4j
 @Controller
 @RequiredArgsConstructor
 public class LikeController {
@@ -20,10 +22,10 @@ public class LikeController {
 
     @PostMapping("/likes/review/{id}")
     public String likeReview(@PathVariable Long id,
-                             Principal principal,
+                             @AuthenticationPrincipal UserPrincipal currentUser,
                              HttpServletRequest request) {
         try {
-            likeService.likeReview(id, principal.getName());
+            likeService.likeReview(id, currentUser);
 
             Review review = reviewRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Review not found"));
@@ -32,7 +34,7 @@ public class LikeController {
             return "redirect:/books/" + bookId + "#review-" + id;
 
         } catch (RuntimeException e) {
-            System.out.println("Like error: " + e.getMessage());
+            log.debug("Like of review {} rejected: {}", id, e.getMessage());
 
             if (e.getMessage().contains("Cannot like your own review")) {
                 Review review = reviewRepository.findById(id).orElse(null);
@@ -1,15 +1,15 @@
 package com.example.bookreview.controller;
 
-import com.example.bookreview.entity.Review;
+import com.example.bookreview.dto.CommentPage;
 import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.security.UserPrincipal;
 import com.example.bookreview.service.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
-import java.time.LocalDateTime;
-
 @Controller
 @RequiredArgsConstructor
 public class ReviewController {
@@ -17,23 +17,32 @@ public class ReviewController {
     private final ReviewService reviewService;
     private final ReviewRepository reviewRepository;
 
+    // фрагмент с более ранними комментариями рецензии
+    @GetMapping("/reviews/{id}/comments")
+    public String olderComments(@PathVariable("id") Long id,
+                                @RequestParam String before,
+                                Model model) {
+        CommentPage commentPage = reviewService.getOlderComments(id, before);
+        model.addAttribute("commentPage", commentPage);
+        return "books/reviews :: commentPage";
+    }
+
     @PostMapping("/reviews/add")
     public String addReview(@RequestParam Long bookId,
                             @RequestParam String text,
-                            Principal principal) {
+                            @AuthenticationPrincipal UserPrincipal currentUser) {
 
-        reviewService.addReview(bookId, principal.getName(), text);
+        reviewService.addReview(bookId, currentUser, text);
         return "redirect:/books/" + bookId + "#reviews-section";
     }
 
     @PostMapping("/reviews/{id}/delete")
-    public String deleteReview(@PathVariable("id") Long id, Principal principal) {
-        String username = principal.getName();
-        Review review = reviewRepository.findById(id)
+    public String deleteReview(@PathVariable("id") Long id,
+                               @AuthenticationPrincipal UserPrincipal currentUser) {
+        Long bookId = reviewRepository.findBookIdById(id)
                 .orElseThrow(() -> new RuntimeException("Review not found with id: " + id));
 
-        Long bookId = review.getBook().getId();
-        reviewService.deleteReview(id, username);
+        reviewService.deleteReview(id, currentUser);
 
         return "redirect:/books/" + bookId;
     }
@@ -41,20 +50,9 @@ public class ReviewController {
     @PostMapping("/reviews/update")
     public String updateReview(@RequestParam Long reviewId,
                                @RequestParam String text,
-                               Principal principal) {
-
-        String username = principal.getName();
-        Review review = reviewRepository.findById(reviewId)
-                .orElseThrow(() -> new RuntimeException("Review not found"));
+                               @AuthenticationPrincipal UserPrincipal currentUser) {
 
-        if (!review.getUser().getUsername().equals(username)) {
-            throw new RuntimeException("Not allowed to edit this review");
-        }
-
-        review.setText(text);
-        review.setUpdatedAt(LocalDateTime.now());
-        reviewRepository.save(review);
-
-        return "redirect:/books/" + review.getBook().getId();
+        Long bookId = reviewService.updateReview(reviewId, currentUser, text);
+        return "redirect:/books/" + bookId;
     }
 }
\ No newline at end of file
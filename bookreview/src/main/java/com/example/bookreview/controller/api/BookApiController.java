@@ -0,0 +1,105 @@
+package com.example.bookreview.controller.api;
+
+import com.example.bookreview.dto.BookCursorPage;
+import com.example.bookreview.dto.BookDto;
+import com.example.bookreview.dto.ReviewDto;
+import com.example.bookreview.dto.ReviewPage;
+import com.example.bookreview.dto.api.ApiBook;
+import com.example.bookreview.dto.api.ApiBookDetail;
+import com.example.bookreview.dto.api.ApiPage;
+import com.example.bookreview.dto.api.ApiReview;
+import com.example.bookreview.dto.api.ApiTextRequest;
+import com.example.bookreview.repository.projection.BookVersion;
+import com.example.bookreview.security.UserPrincipal;
+import com.example.bookreview.service.BookService;
+import com.example.bookreview.service.ReviewService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+
+/**
+ * JSON API каталога для мобильного приложения и скриптов страницы.
+ * Ответы каталога и карточки книги не зависят от пользователя, поэтому ETag без привязки к сессии.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/books", produces = MediaType.APPLICATION_JSON_VALUE)
+public class BookApiController {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    private final BookService bookService;
+    private final ReviewService reviewService;
+
+    @GetMapping
+    public ResponseEntity<ApiPage<ApiBook>> listBooks(@RequestParam(required = false) String search,
+                                                      @RequestParam(required = false) String author,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(required = false) String after,
+                                                      @RequestParam(required = false) String before,
+                                                      WebRequest webRequest) {
+        // Last-Modified округляется до секунды, ETag различает правки внутри неё
+        Instant catalogModified = bookService.getCatalogLastModified();
+        if (catalogModified != null && webRequest.checkNotModified(
+                "W/\"catalog-" + catalogModified.toEpochMilli() + "\"", catalogModified.toEpochMilli())) {
+            return null;
+        }
+
+        boolean hasSearch = search != null && !search.isBlank();
+        boolean hasAuthor = author != null && !author.isBlank();
+        ApiPage<ApiBook> body;
+        if (!hasSearch && !hasAuthor && (after != null || before != null || bookService.isKeysetPaginationPreferred())) {
+            BookCursorPage cursorPage = bookService.getBooksByCursor(after, before);
+            body = ApiPage.ofCursors(cursorPage.getContent().stream().map(ApiBook::from).toList(),
+                    cursorPage.getNextCursor(), cursorPage.getPrevCursor());
+        } else {
+            Pageable pageable = PageRequest.of(Math.max(page, 0), bookService.getBooksPerPage(), Sort.by("title").ascending());
+            Page<BookDto> books = hasSearch ? bookService.searchBooks(search, pageable)
+                    : hasAuthor ? bookService.filterByAuthor(author, pageable)
+                    : bookService.getAllBooks(pageable);
+            body = ApiPage.of(books, ApiBook::from);
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiBookDetail> getBook(@PathVariable Long id, WebRequest webRequest) {
+        BookVersion version = bookService.getBookVersion(id);
+        if (version != null && webRequest.checkNotModified("W/\"book-" + id + "-" + version.version() + "\"")) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(ApiBookDetail.from(bookService.getBookById(id)));
+    }
+
+    @GetMapping("/{id}/reviews")
+    public ApiPage<ApiReview> getReviews(@PathVariable Long id,
+                                         @RequestParam(required = false) String after,
+                                         @AuthenticationPrincipal UserPrincipal currentUser) {
+        Long userId = currentUser != null ? currentUser.getId() : null;
+        ReviewPage reviewPage = reviewService.getReviewPage(id, userId, after);
+        return ApiPage.ofCursors(reviewPage.getContent().stream().map(ApiReview::from).toList(),
+                reviewPage.getNextCursor(), null);
+    }
+
+    // consumes: кросс-доменная форма не пришлёт application/json без CORS-preflight, это заменяет CSRF-токен
+    @PostMapping(path = "/{id}/reviews", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public ApiReview addReview(@PathVariable Long id,
+                               @Valid @RequestBody ApiTextRequest request,
+                               @AuthenticationPrincipal UserPrincipal currentUser) {
+        ReviewDto review = reviewService.addReview(id, currentUser, request.text());
+        return ApiReview.from(review);
+    }
+}
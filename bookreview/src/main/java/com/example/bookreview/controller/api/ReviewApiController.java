@@ -0,0 +1,53 @@
+package com.example.bookreview.controller.api;
+
+import com.example.bookreview.dto.CommentCreateDto;
+import com.example.bookreview.dto.CommentPage;
+import com.example.bookreview.dto.api.ApiComment;
+import com.example.bookreview.dto.api.ApiLikeResult;
+import com.example.bookreview.dto.api.ApiPage;
+import com.example.bookreview.dto.api.ApiTextRequest;
+import com.example.bookreview.security.UserPrincipal;
+import com.example.bookreview.service.CommentService;
+import com.example.bookreview.service.LikeService;
+import com.example.bookreview.service.ReviewService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+// комментарии и лайки рецензий; POST принимают только application/json (см. BookApiController)
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/reviews", produces = MediaType.APPLICATION_JSON_VALUE)
+public class ReviewApiController {
+
+    private final ReviewService reviewService;
+    private final CommentService commentService;
+    private final LikeService likeService;
+
+    @GetMapping("/{id}/comments")
+    public ApiPage<ApiComment> getOlderComments(@PathVariable Long id, @RequestParam String before) {
+        CommentPage commentPage = reviewService.getOlderComments(id, before);
+        return ApiPage.ofCursors(commentPage.getContent().stream().map(ApiComment::from).toList(),
+                commentPage.getOlderCursor(), null);
+    }
+
+    @PostMapping(path = "/{id}/comments", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public ApiComment addComment(@PathVariable Long id,
+                                 @Valid @RequestBody ApiTextRequest request,
+                                 @AuthenticationPrincipal UserPrincipal currentUser) {
+        CommentCreateDto dto = new CommentCreateDto();
+        dto.setReviewId(id);
+        dto.setText(request.text());
+        return ApiComment.from(commentService.addComment(dto, currentUser));
+    }
+
+    // переключает лайк и возвращает новое число лайков
+    @PostMapping(path = "/{id}/like", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ApiLikeResult toggleLike(@PathVariable Long id, @AuthenticationPrincipal UserPrincipal currentUser) {
+        return new ApiLikeResult(id, likeService.likeReview(id, currentUser));
+    }
+}
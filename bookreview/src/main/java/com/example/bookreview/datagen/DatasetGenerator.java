@@ -0,0 +1,272 @@
+package com.example.bookreview.datagen;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Синтетический набор данных для нагрузочных тестов: пользователи, книги, рецензии и лайки.
+ * Рецензии распределены по книгам по закону Ципфа (немного "горячих" книг), лайки — с тяжёлым хвостом.
+ * Одинаковый seed даёт одинаковый набор. Запуск: gradle generateDataset
+ */
+@Slf4j
+@Component
+@Profile("datagen")
+@RequiredArgsConstructor
+public class DatasetGenerator implements ApplicationRunner {
+
+    public static final String USERNAME_PREFIX = "gen_";
+    public static final String PASSWORD = "password1";
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int REVIEW_SPAN_MINUTES = 2 * 365 * 24 * 60;
+    private static final double PARETO_ALPHA = 1.5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${bookreview.datagen.seed:42}")
+    private long seed;
+
+    @Value("${bookreview.datagen.users:20000}")
+    private int users;
+
+    @Value("${bookreview.datagen.books:10000}")
+    private int books;
+
+    @Value("${bookreview.datagen.reviews:100000}")
+    private long reviews;
+
+    @Value("${bookreview.datagen.likes:500000}")
+    private long likes;
+
+    @Value("${bookreview.datagen.skew:1.1}")
+    private double skew;
+
+    @Value("${bookreview.datagen.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${bookreview.datagen.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generate();
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    public Summary generate() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username LIKE ?", Integer.class, USERNAME_PREFIX + "%");
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Dataset already generated: " + existing + " users with prefix " + USERNAME_PREFIX);
+        }
+
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        long[] userIds = insertUsers();
+        long[] bookIds = insertBooks(random.split());
+        long[] counts = insertReviewsAndLikes(random.split(), bookIds, userIds);
+
+        Summary summary = new Summary(userIds.length, bookIds.length, counts[0], counts[1]);
+        log.info("Dataset generated in {} s: {}", (System.nanoTime() - started) / 1_000_000_000, summary);
+        return summary;
+    }
+
+    private long[] insertUsers() {
+        // один хеш на всех: генерация не должна упираться в BCrypt
+        String password = passwordEncoder.encode(PASSWORD);
+        long lastId = maxId("users");
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int u = 0; u < users; u++) {
+            String username = String.format("%suser%07d", USERNAME_PREFIX, u);
+            batch.add(new Object[]{username, username + "@example.com", password});
+            if (batch.size() == batchSize) {
+                flush("INSERT INTO users (username, email, password, role) VALUES (?, ?, ?, 'ROLE_USER')", batch);
+            }
+        }
+        flush("INSERT INTO users (username, email, password, role) VALUES (?, ?, ?, 'ROLE_USER')", batch);
+        log.info("Users: {}", users);
+        return idsAfter("users", lastId, users);
+    }
+
+    private long[] insertBooks(SplittableRandom random) {
+        long lastId = maxId("book");
+        int authors = Math.max(1, books / 20);
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int b = 0; b < books; b++) {
+            batch.add(new Object[]{
+                    String.format("Книга %07d", b),
+                    "Автор " + random.nextInt(authors),
+                    "Описание книги " + b
+            });
+            if (batch.size() == batchSize) {
+                flush("INSERT INTO book (title, author, description, is_active) VALUES (?, ?, ?, TRUE)", batch);
+            }
+        }
+        flush("INSERT INTO book (title, author, description, is_active) VALUES (?, ?, ?, TRUE)", batch);
+        log.info("Books: {}", books);
+        return idsAfter("book", lastId, books);
+    }
+
+    // рецензии и лайки пишутся порциями: id порции рецензий читаются сразу после вставки
+    private long[] insertReviewsAndLikes(SplittableRandom random, long[] bookIds, long[] userIds) {
+        ZipfSampler bookSampler = new ZipfSampler(bookIds.length, skew, random.split());
+        int[] reviewsPerBook = new int[bookIds.length];
+        int[] authorOffset = new int[bookIds.length];
+        for (int b = 0; b < bookIds.length; b++) {
+            authorOffset[b] = random.nextInt(userIds.length);
+        }
+        int userStride = coprimeStride(userIds.length, random);
+        int likeStride = coprimeStride(userIds.length - 1, random);
+        double meanLikes = reviews > 0 ? (double) likes / reviews : 0;
+        double paretoScale = meanLikes * (PARETO_ALPHA - 1) / PARETO_ALPHA;
+
+        long reviewsInserted = 0;
+        long likesInserted = 0;
+        long skipped = 0;
+
+        int chunk = batchSize;
+        int[] authors = new int[chunk];
+        int[] likeCounts = new int[chunk];
+        List<Object[]> reviewBatch = new ArrayList<>(chunk);
+        List<Object[]> likeBatch = new ArrayList<>(batchSize);
+
+        for (long r = 0; r < reviews; r++) {
+            int book = bookSampler.next();
+            // пара (книга, пользователь) уникальна: авторы книги идут по кольцу пользователей с взаимно простым шагом
+            if (reviewsPerBook[book] >= userIds.length) {
+                skipped++;
+                continue;
+            }
+            int author = (int) ((authorOffset[book] + (long) reviewsPerBook[book]++ * userStride) % userIds.length);
+            // случайное округление сохраняет среднее число лайков
+            long likesDrawn = (long) (paretoScale * pareto(random) + random.nextDouble());
+            int likeCount = (int) Math.min(userIds.length - 1L, likesDrawn);
+
+            int slot = reviewBatch.size();
+            authors[slot] = author;
+            likeCounts[slot] = likeCount;
+            LocalDateTime createdAt = BASE_TIME.plusMinutes(random.nextInt(REVIEW_SPAN_MINUTES));
+            Timestamp timestamp = Timestamp.valueOf(createdAt);
+            reviewBatch.add(new Object[]{
+                    bookIds[book], userIds[author], "Рецензия " + r, timestamp, timestamp, likeCount
+            });
+
+            if (reviewBatch.size() == chunk) {
+                likesInserted += insertChunk(reviewBatch, authors, likeCounts, userIds, likeStride, likeBatch);
+                reviewsInserted += reviewBatch.size();
+                reviewBatch.clear();
+                if (reviewsInserted % (chunk * 20L) == 0) {
+                    log.info("Reviews: {} / {}, likes: {}", reviewsInserted, reviews, likesInserted);
+                }
+            }
+        }
+        if (!reviewBatch.isEmpty()) {
+            likesInserted += insertChunk(reviewBatch, authors, likeCounts, userIds, likeStride, likeBatch);
+            reviewsInserted += reviewBatch.size();
+        }
+        flush("INSERT INTO likes (user_id, review_id) VALUES (?, ?)", likeBatch);
+
+        if (skipped > 0) {
+            log.warn("{} reviews skipped: hot books ran out of distinct users, raise bookreview.datagen.users", skipped);
+        }
+        return new long[]{reviewsInserted, likesInserted};
+    }
+
+    private long insertChunk(List<Object[]> reviewBatch, int[] authors, int[] likeCounts, long[] userIds,
+                             int likeStride, List<Object[]> likeBatch) {
+        int size = reviewBatch.size();
+        long lastId = maxId("review");
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO review (book_id, user_id, text, created_at, updated_at, likes_count) VALUES (?, ?, ?, ?, ?, ?)",
+                reviewBatch);
+        long[] reviewIds = idsAfter("review", lastId, size);
+
+        long inserted = 0;
+        for (int i = 0; i < size; i++) {
+            int userCount = userIds.length;
+            for (int j = 0; j < likeCounts[i]; j++) {
+                // сдвиг 1..userCount-1 от автора: лайкающие различны и не совпадают с автором
+                int liker = (int) ((authors[i] + 1 + (long) j * likeStride % (userCount - 1)) % userCount);
+                likeBatch.add(new Object[]{userIds[liker], reviewIds[i]});
+                if (likeBatch.size() == batchSize) {
+                    flush("INSERT INTO likes (user_id, review_id) VALUES (?, ?)", likeBatch);
+                }
+            }
+            inserted += likeCounts[i];
+        }
+        return inserted;
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    private long maxId(String table) {
+        Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return id != null ? id : 0;
+    }
+
+    // генератор — единственный писатель, поэтому только что вставленные строки идут подряд после lastId
+    private long[] idsAfter(String table, long lastId, int expected) {
+        long[] ids = new long[expected];
+        int[] index = {0};
+        jdbcTemplate.query("SELECT id FROM " + table + " WHERE id > ? ORDER BY id",
+                rs -> {
+                    if (index[0] < expected) {
+                        ids[index[0]] = rs.getLong(1);
+                    }
+                    index[0]++;
+                }, lastId);
+        if (index[0] != expected) {
+            throw new IllegalStateException("Concurrent writes to " + table + " during generation");
+        }
+        return ids;
+    }
+
+    private static double pareto(SplittableRandom random) {
+        return Math.pow(1 - random.nextDouble(), -1 / PARETO_ALPHA);
+    }
+
+    private static int coprimeStride(int n, SplittableRandom random) {
+        if (n <= 1) {
+            return 1;
+        }
+        int stride = 1 + random.nextInt(n);
+        while (gcd(stride, n) != 1) {
+            stride = stride % n + 1;
+        }
+        return stride;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    public record Summary(long users, long books, long reviews, long likes) {
+    }
+}
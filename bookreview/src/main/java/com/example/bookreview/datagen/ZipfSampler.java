@@ -0,0 +1,51 @@
+package com.example.bookreview.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Выбор индекса 0..n-1 с вероятностью ~ 1/rank^s; ранги случайно перемешаны,
+ * чтобы "горячие" книги не совпадали с первыми id
+ */
+class ZipfSampler {
+
+    private final double[] cumulative;
+    private final int[] indexByRank;
+    private final SplittableRandom random;
+
+    ZipfSampler(int n, double exponent, SplittableRandom random) {
+        this.random = random;
+        this.cumulative = new double[n];
+        this.indexByRank = new int[n];
+
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+            indexByRank[rank] = rank;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexByRank[i];
+            indexByRank[i] = indexByRank[j];
+            indexByRank[j] = swap;
+        }
+    }
+
+    int next() {
+        double u = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return indexByRank[low];
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bookreview.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+
+/**
+ * Запоминает авторов изменяющих запросов для read-your-writes в {@link ReplicaRoutingDataSource}.
+ * Отметка ставится до обработчика и обновляется после неё: окно отсчитывается от коммита,
+ * а редирект на GET не обгоняет отметку, даже если ответ ушёл раньше afterCompletion.
+ */
+@RequiredArgsConstructor
+public class RecentWriterInterceptor implements HandlerInterceptor {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        record(request);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        record(request);
+    }
+
+    private void record(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && !ReplicaRoutingDataSource.isSafe(request)) {
+            routingDataSource.recordWrite(principal.getName());
+        }
+    }
+}
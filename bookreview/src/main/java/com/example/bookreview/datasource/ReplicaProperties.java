@@ -0,0 +1,33 @@
+package com.example.bookreview.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реплики для read-only транзакций: bookreview.datasource.replicas[i].url/username/password.
+ * Пустой список — всё идёт в spring.datasource, как раньше.
+ */
+@Data
+@ConfigurationProperties("bookreview.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+    // реплика с отставанием больше этого исключается из ротации
+    private Duration maxLag = Duration.ofSeconds(5);
+    // столько после своей записи пользователь читает с primary
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private int maximumPoolSize = 10;
+
+    @Data
+    public static class Replica {
+        private String url;
+        // по умолчанию как у spring.datasource
+        private String username;
+        private String password;
+    }
+}
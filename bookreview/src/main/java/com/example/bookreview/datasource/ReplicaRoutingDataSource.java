@@ -0,0 +1,199 @@
+package com.example.bookreview.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.security.Principal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник соединений для read-only транзакций (readOnlyDataSource у LazyConnectionDataSourceProxy).
+ * Реплики выбираются по кругу среди здоровых и отстающих не больше maxLag; если таких нет — primary.
+ * Запросы с изменяющим HTTP-методом и чтения пользователя в течение readYourWritesWindow после его
+ * записи (отмечает {@link RecentWriterInterceptor}) тоже идут в primary: при open-in-view соединение держится весь запрос, а реплика может не
+ * успеть получить только что записанное.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    // 0, если реплика догнала primary; иначе возраст последней применённой транзакции
+    private static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag,
+                                    Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagMillis = maxLag.toMillis();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(100_000)
+                .build();
+
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicas.get(i));
+            this.replicas.add(replica);
+            Gauge.builder("bookreview.datasource.replica.lag", replica, r -> r.lagMillis)
+                    .tag("replica", replica.name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("bookreview.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+        this.primaryRoutes = routes(meterRegistry, "primary");
+        this.replicaRoutes = routes(meterRegistry, "replica");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!requiresPrimary()) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                if (!replica.healthy || replica.lagMillis > maxLagMillis) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replicaRoutes.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    // до следующей проверки реплика выключена из ротации
+                    replica.markDown(e);
+                }
+            }
+        }
+        primaryRoutes.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica routing uses configured credentials");
+    }
+
+    /**
+     * Отмечает запись пользователя. Вызывается из {@link RecentWriterInterceptor}, а не при выборе
+     * соединения: read-write транзакции берут соединение у primary напрямую и сюда не попадают.
+     */
+    public void recordWrite(String username) {
+        recentWriters.put(username, Boolean.TRUE);
+    }
+
+    static boolean isSafe(HttpServletRequest request) {
+        return SAFE_METHODS.contains(request.getMethod());
+    }
+
+    @Scheduled(fixedDelayString = "${bookreview.datasource.health-check-interval:5s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                replica.markUp(measureLagMillis(connection));
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private boolean requiresPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            // фоновые задачи: решает только readOnly транзакции
+            return false;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        if (!isSafe(request)) {
+            return true;
+        }
+        Principal principal = request.getUserPrincipal();
+        return principal != null && recentWriters.getIfPresent(principal.getName()) != null;
+    }
+
+    private static long measureLagMillis(Connection connection) throws SQLException {
+        if (!"PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+            if (!connection.isValid(1)) {
+                throw new SQLException("Connection is not valid");
+            }
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(POSTGRES_LAG_QUERY)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static Counter routes(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("bookreview.datasource.routing")
+                .description("Read-only connections by routing target")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagMillis;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void markUp(long lagMillis) {
+            if (!healthy) {
+                log.info("Replica {} is back, lag {} ms", name, lagMillis);
+            }
+            this.lagMillis = lagMillis;
+            this.healthy = true;
+        }
+
+        private void markDown(SQLException e) {
+            if (healthy) {
+                log.warn("Replica {} is down: {}", name, e.getMessage());
+            }
+            this.healthy = false;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.bookreview.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BookCursorPage {
+    private List<BookDto> content;
+    private String nextCursor;
+    private String prevCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return prevCursor != null;
+    }
+}
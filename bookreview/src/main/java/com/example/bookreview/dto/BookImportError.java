@@ -0,0 +1,12 @@
+package com.example.bookreview.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookImportError {
+    private long line;
+    private String title;
+    private String message;
+}
@@ -0,0 +1,20 @@
+package com.example.bookreview.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Строка отчёта об импорте: нарастающие счётчики и ошибки строк с прошлого отчёта.
+ */
+@Data
+@Builder
+public class BookImportProgress {
+    private long rows;
+    private long imported;
+    private long duplicates;
+    private long failed;
+    private boolean finished;
+    private List<BookImportError> errors;
+}
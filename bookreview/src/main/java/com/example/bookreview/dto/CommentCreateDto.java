@@ -1,6 +1,7 @@
 package com.example.bookreview.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,5 +11,6 @@ import lombok.Setter;
 public class CommentCreateDto {
     private Long reviewId;
     @NotBlank
+    @Size(max = 1000)
     private String text;
 }
\ No newline at end of file
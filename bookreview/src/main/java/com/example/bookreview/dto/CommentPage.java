@@ -0,0 +1,18 @@
+package com.example.bookreview.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CommentPage {
+    private Long reviewId;
+    private List<CommentDto> content;
+    private String olderCursor;
+
+    public boolean hasOlder() {
+        return olderCursor != null;
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.bookreview.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 @Data
 public class ReviewCreateDto {
     @NotBlank(message = "Текст рецензии не может быть пустым")
+    @Size(max = 1000, message = "Текст рецензии не должен превышать 1000 символов")
     private String text;
     private Long bookId;
 }
\ No newline at end of file
@@ -19,4 +19,6 @@ public class ReviewDto {
     @Setter
     private boolean liked;
     private List<CommentDto> comments;
+    private long commentsCount;
+    private String olderCommentsCursor;
 }
@@ -0,0 +1,18 @@
+package com.example.bookreview.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ReviewPage {
+    private List<ReviewDto> content;
+    private String nextCursor;
+    private long totalCount;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.bookreview.dto.api;
+
+import com.example.bookreview.dto.BookDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// карточка книги в списке каталога: без описания и ссылки на файл
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiBook(Long id, String title, String author, String coverUrl) {
+
+    public static ApiBook from(BookDto book) {
+        return new ApiBook(book.getId(), book.getTitle(), book.getAuthor(), book.getCoverUrl());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.bookreview.dto.api;
+
+import com.example.bookreview.dto.BookDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiBookDetail(Long id, String title, String author, String description,
+                            String coverUrl, String fileUrl) {
+
+    public static ApiBookDetail from(BookDto book) {
+        return new ApiBookDetail(book.getId(), book.getTitle(), book.getAuthor(), book.getDescription(),
+                book.getCoverUrl(), book.getFileUrl());
+    }
+}
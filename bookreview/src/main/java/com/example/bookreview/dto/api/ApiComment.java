@@ -0,0 +1,12 @@
+package com.example.bookreview.dto.api;
+
+import com.example.bookreview.dto.CommentDto;
+
+import java.time.LocalDateTime;
+
+public record ApiComment(Long id, String text, String author, LocalDateTime createdAt) {
+
+    public static ApiComment from(CommentDto comment) {
+        return new ApiComment(comment.getId(), comment.getText(), comment.getUserUsername(), comment.getCreatedAt());
+    }
+}
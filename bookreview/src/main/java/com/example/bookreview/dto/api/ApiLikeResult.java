@@ -0,0 +1,4 @@
+package com.example.bookreview.dto.api;
+
+public record ApiLikeResult(Long reviewId, long likes) {
+}
@@ -0,0 +1,25 @@
+package com.example.bookreview.dto.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница списка. Keyset-страницы отдают курсоры next/prev,
+ * постраничные (поиск, фильтр, небольшой каталог) — page/totalPages/total.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiPage<T>(List<T> items, String next, String prev,
+                         Integer page, Integer totalPages, Long total) {
+
+    public static <T> ApiPage<T> ofCursors(List<T> items, String next, String prev) {
+        return new ApiPage<>(items, next, prev, null, null, null);
+    }
+
+    public static <S, T> ApiPage<T> of(Page<S> page, Function<S, T> mapper) {
+        return new ApiPage<>(page.getContent().stream().map(mapper).toList(), null, null,
+                page.getNumber(), page.getTotalPages(), page.getTotalElements());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bookreview.dto.api;
+
+import com.example.bookreview.dto.ReviewDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Рецензия с последними комментариями. olderComments — курсор для
+ * GET /api/v1/reviews/{id}/comments?before=..., если показаны не все.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiReview(Long id, String text, String author, long likes, boolean liked,
+                        LocalDateTime createdAt, long commentsCount, List<ApiComment> comments,
+                        String olderComments) {
+
+    public static ApiReview from(ReviewDto review) {
+        List<ApiComment> comments = review.getComments() != null
+                ? review.getComments().stream().map(ApiComment::from).toList()
+                : List.of();
+        return new ApiReview(review.getId(), review.getText(), review.getUsername(), review.getLikesCount(),
+                review.isLiked(), review.getCreatedAt(), review.getCommentsCount(), comments,
+                review.getOlderCommentsCursor());
+    }
+}
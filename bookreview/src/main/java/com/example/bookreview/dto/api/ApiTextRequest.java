@@ -0,0 +1,8 @@
+package com.example.bookreview.dto.api;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+// тело создания рецензии или комментария; длина как у столбца text
+public record ApiTextRequest(@NotBlank @Size(max = 1000) String text) {
+}
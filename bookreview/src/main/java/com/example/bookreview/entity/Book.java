@@ -3,12 +3,21 @@ package com.example.bookreview.entity;
 import jakarta.persistence.*;
 import lombok.Builder;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_book_active_title_id", columnList = "is_active, title, id"),
+        @Index(name = "idx_book_modified_at", columnList = "modified_at")
+})
 @Data
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled-последовательность: id известен до INSERT, поэтому Hibernate может пакетировать вставки
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
     private String title;
     private String author;
@@ -17,4 +26,28 @@ public class Book {
     private String coverUrl;
     private String fileUrl;
     private Boolean isActive;
+
+    // версия страницы книги для ETag: растёт при правке книги и при записи рецензий, комментариев и лайков.
+    // После вставки меняется только SQL-инкрементом BookRepository.touchActivity: запись сущности
+    // с загруженным значением затёрла бы параллельное увеличение
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long version;
+    // последнее изменение страницы книги (Last-Modified), обновляется вместе с version
+    @Column(updatable = false)
+    private Instant activityAt;
+    // последнее изменение самой записи книги: от него зависит каталог
+    private Instant modifiedAt;
+
+    @PrePersist
+    void onCreate() {
+        version++;
+        modifiedAt = Instant.now();
+        activityAt = modifiedAt;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        modifiedAt = Instant.now();
+    }
 }
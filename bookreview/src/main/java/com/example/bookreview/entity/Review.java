@@ -2,16 +2,20 @@ package com.example.bookreview.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_review_book_created", columnList = "book_id, created_at, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_review_book_user", columnNames = {"book_id", "user_id"}))
 @Data
 public class Review {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "review_seq")
+    @SequenceGenerator(name = "review_seq", sequenceName = "review_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 1000)
@@ -20,6 +24,11 @@ public class Review {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // денормализованный счётчик лайков, поддерживается LikeService
+    @ColumnDefault("0")
+    @Column(name = "likes_count", nullable = false)
+    private long likesCount;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
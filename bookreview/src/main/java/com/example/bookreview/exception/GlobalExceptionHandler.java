@@ -1,12 +1,18 @@
 package com.example.bookreview.exception;
 
 import com.example.bookreview.dto.ErrorResponse;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -52,6 +58,18 @@ public class GlobalExceptionHandler {
         return viewName;
     }
 
+    // Пул хеширования паролей переполнен
+    @ExceptionHandler(AuthenticationServiceException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ModelAndView handleAuthenticationServiceException(AuthenticationServiceException ex, HttpServletRequest request) {
+        log.warn("Authentication service unavailable: {}", ex.getMessage());
+
+        ModelAndView mav = new ModelAndView("error");
+        mav.addObject("errorResponse",
+                new ErrorResponse(ex.getMessage(), "Service Unavailable", 503, request.getRequestURI()));
+        return mav;
+    }
+
     // Обработка RuntimeException (общие ошибки)
     @ExceptionHandler(RuntimeException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -76,6 +94,15 @@ public class GlobalExceptionHandler {
         return mav;
     }
 
+    // 405/415/406 от Spring MVC: отдаём их статус без тела, иначе их перехватил бы обработчик ниже как 500
+    @ExceptionHandler({HttpRequestMethodNotSupportedException.class, HttpMediaTypeNotSupportedException.class,
+            HttpMediaTypeNotAcceptableException.class})
+    public ResponseEntity<Void> handleRequestMismatch(ServletException ex) {
+        org.springframework.web.ErrorResponse error = (org.springframework.web.ErrorResponse) ex;
+        log.debug("Request mismatch: {}", ex.getMessage());
+        return ResponseEntity.status(error.getStatusCode()).headers(error.getHeaders()).build();
+    }
+
     // Обработка всех остальных исключений
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,359 @@
+package com.example.bookreview.live;
+
+import com.example.bookreview.dto.api.ApiComment;
+import com.example.bookreview.dto.api.ApiReview;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.projection.LikesCount;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Живые обновления страницы книги по SSE.
+ * События сервисов (после коммита) копятся по книгам и раз в flushInterval уходят одним событием
+ * на всех подписчиков книги: всплеск из сотни лайков — одна запись в каждое соединение.
+ * Изменения книг без подписчиков не накапливаются. Число соединений на узел ограничено maxConnections.
+ * Запись в соединения идёт через очередь каждого подписчика на пуле live-send: клиент, который не читает,
+ * занимает один поток пула, а при переполнении своей очереди отключается, не задерживая остальных.
+ */
+@Slf4j
+public class BookEventHub {
+
+    // при большем всплеске клиент получит часть комментариев, остальные — после перезагрузки
+    private static final int MAX_PENDING_COMMENTS = 100;
+    private static final int MAX_PENDING_REVIEWS = 20;
+    // раз в столько интервалов без событий шлём комментарий SSE, чтобы найти закрытые соединения
+    private static final int HEARTBEAT_EVERY = 15;
+    // событий, ожидающих записи в одно соединение; при flushInterval 1s — столько секунд отставания
+    static final int SEND_QUEUE_CAPACITY = 16;
+    // потоков записи: каждый зависший клиент держит один до таймаута записи контейнера
+    private static final int MAX_SENDERS = 32;
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    // книга рецензии не меняется, поэтому id книги для лайков и комментариев кэшируется
+    private final Cache<Long, Long> reviewBooks = Caffeine.newBuilder().maximumSize(10_000).build();
+    private final ReviewRepository reviewRepository;
+    private final int maxConnections;
+    private final long timeoutMillis;
+    private final Counter rejected;
+    private final Counter dropped;
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService senders;
+    private int ticks;
+
+    public BookEventHub(ReviewRepository reviewRepository, int maxConnections, Duration timeout,
+                        Duration flushInterval, MeterRegistry meterRegistry) {
+        this.reviewRepository = reviewRepository;
+        this.maxConnections = maxConnections;
+        this.timeoutMillis = timeout.toMillis();
+
+        Gauge.builder("bookreview.live.connections", connections, AtomicInteger::get)
+                .description("Open SSE connections for book pages")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("bookreview.live.rejected")
+                .description("SSE subscriptions rejected by the connection limit")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("bookreview.live.dropped")
+                .description("SSE connections closed because the client stopped reading")
+                .register(meterRegistry);
+
+        // без очереди задач: если все потоки заняты, подписчик дождётся следующего flush
+        AtomicInteger senderNumber = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(0, MAX_SENDERS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "live-send-" + senderNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // отдельный поток: сборка пачек не занимает общий планировщик @Scheduled
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-updates");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(Long bookId) {
+        return subscribe(bookId, new SseEmitter(timeoutMillis));
+    }
+
+    // открыт для тестов: позволяет подставить соединение, запись в которое блокируется
+    SseEmitter subscribe(Long bookId, SseEmitter emitter) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live connections");
+        }
+        Subscriber subscriber = new Subscriber(bookId, emitter);
+        subscribers.compute(bookId, (id, current) -> {
+            Set<Subscriber> target = current != null ? current : new CopyOnWriteArraySet<>();
+            target.add(subscriber);
+            return target;
+        });
+        Runnable remove = () -> unsubscribe(bookId, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikeCountChanged(LikeCountChanged event) {
+        Long bookId = bookIdOf(event.reviewId());
+        if (bookId != null) {
+            update(bookId, update -> update.likes.add(event.reviewId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentAdded(CommentAdded event) {
+        Long reviewId = event.comment().getReviewId();
+        Long bookId = bookIdOf(reviewId);
+        if (bookId != null) {
+            ApiComment comment = ApiComment.from(event.comment());
+            update(bookId, update -> {
+                if (update.commentCount++ < MAX_PENDING_COMMENTS) {
+                    update.comments.computeIfAbsent(reviewId, id -> new ArrayList<>()).add(comment);
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewAdded(ReviewAdded event) {
+        reviewBooks.put(event.review().getId(), event.bookId());
+        if (subscribers.containsKey(event.bookId())) {
+            ApiReview review = ApiReview.from(event.review());
+            update(event.bookId(), update -> {
+                if (update.reviews.size() < MAX_PENDING_REVIEWS) {
+                    update.reviews.add(review);
+                }
+            });
+        }
+    }
+
+    // вызывается по расписанию; открыт для тестов
+    public void flush() {
+        Map<Long, PendingUpdate> batch = new LinkedHashMap<>();
+        for (Long bookId : pending.keySet()) {
+            PendingUpdate update = pending.remove(bookId);
+            if (update != null && subscribers.containsKey(bookId)) {
+                batch.put(bookId, update);
+            }
+        }
+        Map<Long, Long> likesCounts = currentLikesCounts(batch.values());
+
+        boolean sent = false;
+        for (Map.Entry<Long, PendingUpdate> entry : batch.entrySet()) {
+            Set<Subscriber> bookSubscribers = subscribers.get(entry.getKey());
+            if (bookSubscribers == null) {
+                continue;
+            }
+            PendingUpdate update = entry.getValue();
+            Map<Long, Long> likes = new LinkedHashMap<>();
+            for (Long reviewId : update.likes) {
+                Long likesCount = likesCounts.get(reviewId);
+                if (likesCount != null) {
+                    likes.put(reviewId, likesCount);
+                }
+            }
+            BookUpdate payload = new BookUpdate(likes, update.comments, update.reviews);
+            for (Subscriber subscriber : bookSubscribers) {
+                subscriber.offer(SseEmitter.event().name("update").data(payload, MediaType.APPLICATION_JSON));
+            }
+            sent = true;
+        }
+        if (!sent && ++ticks % HEARTBEAT_EVERY == 0) {
+            subscribers.values().forEach(bookSubscribers -> bookSubscribers.forEach(subscriber ->
+                    subscriber.offer(SseEmitter.event().comment("ping"))));
+        }
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public void shutdown() {
+        // потоки записи — демоны и завершаются сами после минуты простоя
+        flusher.shutdownNow();
+        subscribers.values().forEach(bookSubscribers -> bookSubscribers.forEach(Subscriber::close));
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Live update flush failed", e);
+        }
+    }
+
+    // только пока у книги есть подписчики; иначе событие сразу отбрасывается
+    private void update(Long bookId, Consumer<PendingUpdate> change) {
+        if (!subscribers.containsKey(bookId)) {
+            return;
+        }
+        // compute атомарен относительно remove в flush: изменение попадёт либо в отправляемую пачку, либо в следующую
+        pending.compute(bookId, (id, update) -> {
+            PendingUpdate target = update != null ? update : new PendingUpdate();
+            change.accept(target);
+            return target;
+        });
+    }
+
+    // одно чтение на всю пачку уже после изъятия из pending: каждое попавшее в неё событие закоммичено раньше,
+    // а более поздние изменения вернутся в следующую пачку
+    private Map<Long, Long> currentLikesCounts(Collection<PendingUpdate> updates) {
+        Set<Long> reviewIds = new HashSet<>();
+        updates.forEach(update -> reviewIds.addAll(update.likes));
+        if (reviewIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Long> likesCounts = new HashMap<>();
+        for (LikesCount row : reviewRepository.findLikesCountsByIdIn(reviewIds)) {
+            likesCounts.put(row.reviewId(), row.likesCount());
+        }
+        return likesCounts;
+    }
+
+    private Long bookIdOf(Long reviewId) {
+        if (subscribers.isEmpty()) {
+            return null;
+        }
+        return reviewBooks.get(reviewId, id -> reviewRepository.findBookIdById(id).orElse(null));
+    }
+
+    // onCompletion/onTimeout/onError могут сработать несколько раз: счётчик уменьшаем один
+    private void unsubscribe(Long bookId, Subscriber subscriber) {
+        subscribers.computeIfPresent(bookId, (id, current) -> {
+            if (current.remove(subscriber)) {
+                connections.decrementAndGet();
+            }
+            return current.isEmpty() ? null : current;
+        });
+    }
+
+    private class Subscriber {
+        private final Long bookId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(SEND_QUEUE_CAPACITY);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long bookId, SseEmitter emitter) {
+            this.bookId = bookId;
+            this.emitter = emitter;
+        }
+
+        // вызывается потоком flush и никогда не ждёт клиента
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (queue.offer(event)) {
+                schedule();
+            } else if (close()) {
+                // клиент не успевает читать: остальные события ему не нужны
+                dropped.increment();
+                unsubscribe(bookId, this);
+                log.debug("Dropping live connection for book {}: send queue is full", bookId);
+            }
+        }
+
+        // соединение завершает поток записи, когда освободится: complete() ждёт зависшую запись
+        private boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // все потоки записи заняты; очередь разберёт следующий flush
+                draining.set(false);
+            }
+        }
+
+        // после закрытия подписчика запускается не больше одного раза, поэтому соединение завершается однажды
+        private void drain() {
+            Exception failure = null;
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // клиент ушёл
+                failure = e;
+                closed.set(true);
+                unsubscribe(bookId, this);
+            } finally {
+                draining.set(false);
+            }
+            if (!closed.get()) {
+                if (!queue.isEmpty()) {
+                    schedule();
+                }
+                return;
+            }
+            queue.clear();
+            if (failure != null) {
+                emitter.completeWithError(failure);
+            } else {
+                emitter.complete();
+            }
+        }
+    }
+
+    private static class PendingUpdate {
+        private final Set<Long> likes = new LinkedHashSet<>();
+        private final Map<Long, List<ApiComment>> comments = new LinkedHashMap<>();
+        private final List<ApiReview> reviews = new ArrayList<>();
+        private int commentCount;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.bookreview.live;
+
+import com.example.bookreview.dto.api.ApiComment;
+import com.example.bookreview.dto.api.ApiReview;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Одно SSE-событие update: всё, что произошло с книгой за интервал.
+ * likes — счётчик на момент отправки по id рецензии, comments — новые комментарии по id рецензии.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record BookUpdate(Map<Long, Long> likes, Map<Long, List<ApiComment>> comments, List<ApiReview> reviews) {
+}
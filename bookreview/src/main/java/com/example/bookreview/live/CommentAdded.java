@@ -0,0 +1,6 @@
+package com.example.bookreview.live;
+
+import com.example.bookreview.dto.CommentDto;
+
+public record CommentAdded(CommentDto comment) {
+}
@@ -0,0 +1,6 @@
+package com.example.bookreview.live;
+
+// публикует LikeService после изменения счётчика; книга определяется хабом, а значение он перечитывает при отправке:
+// события параллельных запросов приходят не в порядке их коммитов
+public record LikeCountChanged(Long reviewId) {
+}
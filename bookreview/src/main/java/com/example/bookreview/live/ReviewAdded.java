@@ -0,0 +1,6 @@
+package com.example.bookreview.live;
+
+import com.example.bookreview.dto.ReviewDto;
+
+public record ReviewAdded(Long bookId, ReviewDto review) {
+}
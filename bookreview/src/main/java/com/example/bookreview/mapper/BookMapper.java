@@ -4,11 +4,16 @@ import com.example.bookreview.dto.BookCreateDto;
 import com.example.bookreview.dto.BookDto;
 import com.example.bookreview.entity.Book;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface BookMapper {
     BookDto toDto(Book book);
+    // версию и отметки времени ставит сама сущность при сохранении
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "activityAt", ignore = true)
+    @Mapping(target = "modifiedAt", ignore = true)
     Book toEntity(BookCreateDto dto);
 }
@@ -2,6 +2,7 @@ package com.example.bookreview.mapper;
 
 import com.example.bookreview.dto.CommentDto;
 import com.example.bookreview.entity.Comment;
+import com.example.bookreview.repository.projection.CommentView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -19,6 +20,16 @@ public interface CommentMapper {
     @Mapping(target = "text", source = "text", qualifiedByName = "getSafeText")
     CommentDto toDto(Comment comment);
 
+    @Mapping(target = "id", source = "comment.id")
+    @Mapping(target = "userUsername", source = "username", qualifiedByName = "getSafeUsername")
+    @Mapping(target = "reviewId", source = "comment.review.id")
+    @Mapping(target = "text", source = "comment.text", qualifiedByName = "getSafeText")
+    CommentDto toDto(Comment comment, String username);
+
+    @Mapping(target = "userUsername", source = "userUsername", qualifiedByName = "getSafeUsername")
+    @Mapping(target = "text", source = "text", qualifiedByName = "getSafeText")
+    CommentDto toDto(CommentView view);
+
     default List<CommentDto> toDtoList(List<Comment> comments) {
         if (comments == null) {
             return new ArrayList<>();
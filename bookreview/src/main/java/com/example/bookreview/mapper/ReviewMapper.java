@@ -2,6 +2,7 @@ package com.example.bookreview.mapper;
 
 import com.example.bookreview.dto.ReviewDto;
 import com.example.bookreview.entity.Review;
+import com.example.bookreview.repository.projection.ReviewView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -11,12 +12,29 @@ import java.util.List;
 public interface ReviewMapper {
 
     @Mapping(target = "username", source = "user.username")
-    @Mapping(target = "likesCount", expression = "java(review.getLikes() != null ? review.getLikes().size() : 0)")
+    @Mapping(target = "likesCount", source = "likesCount")
     @Mapping(target = "createdAt", source = "createdAt")
     @Mapping(target = "updatedAt", source = "updatedAt")
     @Mapping(target = "liked", ignore = true)
     @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "commentsCount", ignore = true)
+    @Mapping(target = "olderCommentsCursor", ignore = true)
     ReviewDto toDto(Review review);
 
     List<ReviewDto> toDtoList(List<Review> reviews);
+
+    // имя автора берётся у вызывающего, чтобы не инициализировать прокси пользователя
+    @Mapping(target = "id", source = "review.id")
+    @Mapping(target = "username", source = "username")
+    @Mapping(target = "liked", ignore = true)
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "commentsCount", ignore = true)
+    @Mapping(target = "olderCommentsCursor", ignore = true)
+    ReviewDto toDto(Review review, String username);
+
+    @Mapping(target = "liked", ignore = true)
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "commentsCount", ignore = true)
+    @Mapping(target = "olderCommentsCursor", ignore = true)
+    ReviewDto toDto(ReviewView view);
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.example.bookreview.metrics;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Медленный JDBC-запрос: текст, параметры первого набора, место вызова и, если собран, план.
+ */
+@Getter
+public class SlowQuery {
+
+    private final Instant executedAt;
+    private final long elapsedMillis;
+    private final String sql;
+    private final List<Object> parameters;
+    private final int batchSize;
+    private final String origin;
+    // заполняется асинхронно после записи
+    private volatile String plan;
+
+    public SlowQuery(Instant executedAt, long elapsedMillis, String sql, List<Object> parameters,
+                     int batchSize, String origin) {
+        this.executedAt = executedAt;
+        this.elapsedMillis = elapsedMillis;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.batchSize = batchSize;
+        this.origin = origin;
+    }
+
+    void setPlan(String plan) {
+        this.plan = plan;
+    }
+}
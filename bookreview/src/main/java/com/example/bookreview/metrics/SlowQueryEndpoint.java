@@ -0,0 +1,33 @@
+package com.example.bookreview.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/slowqueries: самые долгие из медленных запросов (не больше capacity), по убыванию времени. DELETE очищает буфер.
+ */
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        List<SlowQuery> queries = slowQueryLog.snapshot();
+        return Map.of(
+                "thresholdMillis", slowQueryLog.getThresholdMillis(),
+                "recorded", slowQueryLog.getRecorded(),
+                "queries", queries);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.bookreview.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Слушатель datasource-proxy: передаёт в {@link SlowQueryLog} запросы дольше порога
+ * вместе с параметрами и методом приложения, из которого они выполнены.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final String APP_PACKAGE = "com.example.bookreview.";
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    private final SlowQueryLog slowQueryLog;
+    private final DataSource target;
+
+    public SlowQueryListener(SlowQueryLog slowQueryLog, DataSource target) {
+        this.slowQueryLog = slowQueryLog;
+        this.target = target;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!slowQueryLog.isSlow(execInfo.getElapsedTime()) || queryInfoList.isEmpty()) {
+            return;
+        }
+        QueryInfo queryInfo = queryInfoList.get(0);
+        List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+
+        slowQueryLog.record(new SlowQuery(
+                Instant.now(),
+                execInfo.getElapsedTime(),
+                queryInfo.getQuery(),
+                parametersList.isEmpty() ? List.of() : parameters(parametersList.get(0)),
+                execInfo.isBatch() ? execInfo.getBatchSize() : 0,
+                origin()), target);
+    }
+
+    // значения в порядке индексов; setNull(index, sqlType) даёт null
+    private static List<Object> parameters(List<ParameterSetOperation> operations) {
+        List<ParameterSetOperation> sorted = new ArrayList<>(operations);
+        sorted.sort(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]));
+
+        List<Object> values = new ArrayList<>(sorted.size());
+        for (ParameterSetOperation operation : sorted) {
+            Object value = ParameterSetOperation.isSetNullParameterOperation(operation) ? null : operation.getArgs()[1];
+            if (value instanceof String text && text.length() > MAX_PARAMETER_LENGTH) {
+                value = text.substring(0, MAX_PARAMETER_LENGTH) + "…";
+            } else if (value instanceof byte[] bytes) {
+                value = "byte[" + bytes.length + "]";
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    // первый сервис в стеке, иначе первый класс приложения (контроллер, задача по расписанию)
+    private static String origin() {
+        List<StackWalker.StackFrame> frames = StackWalker.getInstance().walk(stream -> stream
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE))
+                .filter(frame -> !frame.getClassName().startsWith(APP_PACKAGE + "metrics."))
+                .filter(frame -> !frame.getClassName().contains("$$"))
+                .toList());
+        Optional<StackWalker.StackFrame> service = frames.stream()
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE + "service."))
+                .findFirst();
+        return service.or(() -> frames.stream().findFirst())
+                .map(frame -> frame.getClassName().substring(APP_PACKAGE.length()) + "." + frame.getMethodName())
+                .orElse("unknown");
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.bookreview.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограниченный буфер самых медленных запросов: min-куча по времени выполнения, новый запрос вытесняет
+ * самый быстрый из сохранённых, только если он медленнее. Запись идёт только для запросов дольше порога,
+ * поэтому на быстром пути остаётся одно сравнение. EXPLAIN (только PostgreSQL, только SELECT)
+ * выполняется в отдельном потоке через исходный DataSource, чтобы не задерживать запрос и не попадать в журнал.
+ */
+@Slf4j
+public class SlowQueryLog {
+
+    private final long thresholdMillis;
+    private final int capacity;
+    private final PriorityQueue<SlowQuery> slowest;
+    private long recorded;
+
+    private final boolean explain;
+    private final ThreadPoolExecutor explainExecutor;
+
+    public SlowQueryLog(Duration threshold, int capacity, boolean explain) {
+        this.thresholdMillis = threshold.toMillis();
+        this.capacity = capacity;
+        this.slowest = new PriorityQueue<>(capacity, Comparator.comparingLong(SlowQuery::getElapsedMillis));
+        this.explain = explain;
+        // один поток и короткая очередь: при лавине медленных запросов планы просто не собираем
+        this.explainExecutor = explain
+                ? new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "slow-query-explain");
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        new ThreadPoolExecutor.DiscardPolicy())
+                : null;
+    }
+
+    public boolean isSlow(long elapsedMillis) {
+        return elapsedMillis >= thresholdMillis;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public void record(SlowQuery query, DataSource target) {
+        // параметры (хеши паролей, почта, тексты) — только в буфере для администратора, не в журнале
+        log.warn("Slow query {} ms in {}: {}", query.getElapsedMillis(), query.getOrigin(), query.getSql());
+        if (!retain(query)) {
+            return;
+        }
+        if (explain && isSelect(query.getSql())) {
+            explainExecutor.execute(() -> query.setPlan(explain(query, target)));
+        }
+    }
+
+    // самые медленные сначала
+    public synchronized List<SlowQuery> snapshot() {
+        List<SlowQuery> queries = new ArrayList<>(slowest);
+        queries.sort(Comparator.comparingLong(SlowQuery::getElapsedMillis).reversed());
+        return queries;
+    }
+
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+
+    public synchronized void clear() {
+        slowest.clear();
+        recorded = 0;
+    }
+
+    public void shutdown() {
+        if (explainExecutor != null) {
+            explainExecutor.shutdownNow();
+        }
+    }
+
+    // запрос с тем же временем, что у самого быстрого из сохранённых, его не вытесняет
+    private synchronized boolean retain(SlowQuery query) {
+        recorded++;
+        if (slowest.size() < capacity) {
+            return slowest.add(query);
+        }
+        if (query.getElapsedMillis() <= slowest.peek().getElapsedMillis()) {
+            return false;
+        }
+        slowest.poll();
+        return slowest.add(query);
+    }
+
+    private static boolean isSelect(String sql) {
+        String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return head.startsWith("select") || head.startsWith("with");
+    }
+
+    private static String explain(SlowQuery query, DataSource target) {
+        try (Connection connection = target.getConnection()) {
+            if (!"PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                return null;
+            }
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.getSql())) {
+                List<Object> parameters = query.getParameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        } catch (SQLException e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bookreview.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-запросы Hibernate в пределах текущего HTTP-запроса.
+ * Вне начатого подсчёта ничего не делает, текст запроса не меняет.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    // счётчик текущего потока; null — подсчёт не начат
+    private final ThreadLocal<int[]> current = new ThreadLocal<>();
+
+    public void begin() {
+        current.set(new int[1]);
+    }
+
+    public int end() {
+        int[] counter = current.get();
+        current.remove();
+        return counter != null ? counter[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] counter = current.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+}
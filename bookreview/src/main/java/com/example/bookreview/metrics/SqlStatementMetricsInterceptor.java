@@ -0,0 +1,52 @@
+package com.example.bookreview.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Публикует число SQL-запросов на HTTP-запрос как bookreview.http.sql.statements{method,uri}.
+ * Подсчёт закрывается в afterCompletion, то есть включает ленивые загрузки при рендеринге шаблона.
+ */
+@RequiredArgsConstructor
+public class SqlStatementMetricsInterceptor implements HandlerInterceptor {
+
+    public static final String METRIC_NAME = "bookreview.http.sql.statements";
+
+    // фиксированные границы вместо процентилей: дёшево и агрегируется между инстансами
+    private static final double[] BUCKETS = {1, 2, 3, 5, 8, 13, 21, 50, 100};
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            counter.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod)) {
+            return;
+        }
+        int statements = counter.end();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        DistributionSummary.builder(METRIC_NAME)
+                .description("SQL statements issued per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .serviceLevelObjectives(BUCKETS)
+                .register(meterRegistry)
+                .record(statements);
+    }
+}
@@ -1,25 +1,68 @@
 package com.example.bookreview.repository;
 
 import com.example.bookreview.entity.Book;
+import com.example.bookreview.repository.projection.BookExportRow;
+import com.example.bookreview.repository.projection.BookVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
 
     Page<Book> findByIsActiveTrue(Pageable pageable);
 
+    // keyset-пагинация по (title, id): без OFFSET и без COUNT
+    @Query("SELECT b FROM Book b WHERE b.isActive = true ORDER BY b.title ASC, b.id ASC")
+    List<Book> findActiveFirstPage(Limit limit);
+
+    @Query("SELECT b FROM Book b WHERE b.isActive = true " +
+            "AND (b.title > :title OR (b.title = :title AND b.id > :id)) " +
+            "ORDER BY b.title ASC, b.id ASC")
+    List<Book> findActiveAfter(@Param("title") String title, @Param("id") Long id, Limit limit);
+
+    // обратный порядок, сервис разворачивает результат
+    @Query("SELECT b FROM Book b WHERE b.isActive = true " +
+            "AND (b.title < :title OR (b.title = :title AND b.id < :id)) " +
+            "ORDER BY b.title DESC, b.id DESC")
+    List<Book> findActiveBefore(@Param("title") String title, @Param("id") Long id, Limit limit);
+
+    // проба размера каталога без полного COUNT: читает не больше offset + 1 строк
+    @Query("SELECT b.id FROM Book b WHERE b.isActive = true")
+    List<Long> findActiveIds(Pageable pageable);
+
     @Query("SELECT b FROM Book b WHERE b.isActive = true AND (LOWER(b.title) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(b.author) LIKE LOWER(CONCAT('%', :query, '%')))")
     Page<Book> findByTitleOrAuthorContainingIgnoreCase(@Param("query") String query, Pageable pageable);
 
     @Query("SELECT b FROM Book b WHERE b.isActive = true AND LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%'))")
     Page<Book> findByAuthorContainingIgnoreCase(@Param("author") String author, Pageable pageable);
 
+    // только PostgreSQL: выражения совпадают с GIN-индексами pg_trgm (см. TrigramBookSearch)
+    @Query(value = "SELECT b.* FROM book b WHERE b.is_active = true " +
+            "AND (lower(b.title) LIKE '%' || lower(:query) || '%' OR lower(b.author) LIKE '%' || lower(:query) || '%')",
+            countQuery = "SELECT COUNT(*) FROM book b WHERE b.is_active = true " +
+                    "AND (lower(b.title) LIKE '%' || lower(:query) || '%' OR lower(b.author) LIKE '%' || lower(:query) || '%')",
+            nativeQuery = true)
+    Page<Book> searchActiveByTitleOrAuthorTrgm(@Param("query") String query, Pageable pageable);
+
+    @Query(value = "SELECT b.* FROM book b WHERE b.is_active = true " +
+            "AND lower(b.author) LIKE '%' || lower(:author) || '%'",
+            countQuery = "SELECT COUNT(*) FROM book b WHERE b.is_active = true " +
+                    "AND lower(b.author) LIKE '%' || lower(:author) || '%'",
+            nativeQuery = true)
+    Page<Book> searchActiveByAuthorTrgm(@Param("author") String author, Pageable pageable);
+
     @Query("SELECT DISTINCT b.author FROM Book b WHERE b.isActive = true AND b.author IS NOT NULL ORDER BY b.author")
     List<String> findAllActiveAuthors();
 
@@ -28,4 +71,39 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 
     @Query("SELECT b FROM Book b WHERE b.isActive = true AND LOWER(b.title) = LOWER(:title) AND b.id != :id")
     Optional<Book> findByTitleIgnoreCaseAndIdNot(@Param("title") String title, @Param("id") Long id);
-}
\ No newline at end of file
+
+    // для дедупликации при импорте; читается потоком внутри транзакции
+    @Query("SELECT b.title FROM Book b WHERE b.isActive = true AND b.title IS NOT NULL")
+    Stream<String> streamActiveTitles();
+
+    // выгрузка: курсор с фиксированным fetch size вместо загрузки всей таблицы
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.bookreview.repository.projection.BookExportRow(" +
+            "b.id, b.title, b.author, b.description, b.coverUrl, b.fileUrl, b.isActive) " +
+            "FROM Book b ORDER BY b.id")
+    Stream<BookExportRow> streamForExport();
+
+    @Query("SELECT new com.example.bookreview.repository.projection.BookVersion(b.version, b.activityAt) " +
+            "FROM Book b WHERE b.id = :id")
+    Optional<BookVersion> findVersionById(@Param("id") Long id);
+
+    // по индексу idx_book_modified_at: одно чтение вместо просмотра каталога
+    @Query("SELECT MAX(b.modifiedAt) FROM Book b")
+    Optional<Instant> findCatalogLastModified();
+
+    // новая версия страницы книги: при её правке, а также при записи рецензий, комментариев и лайков,
+    // которые каталог не меняют
+    @Modifying
+    @Query("UPDATE Book b SET b.version = b.version + 1, b.activityAt = :now WHERE b.id = :bookId")
+    int touchActivity(@Param("bookId") Long bookId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.version = b.version + 1, b.activityAt = :now " +
+            "WHERE b.id = (SELECT r.book.id FROM Review r WHERE r.id = :reviewId)")
+    int touchActivityByReviewId(@Param("reviewId") Long reviewId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.version = b.version + 1, b.activityAt = :now " +
+            "WHERE b.id = (SELECT c.review.book.id FROM Comment c WHERE c.id = :commentId)")
+    int touchActivityByCommentId(@Param("commentId") Long commentId, @Param("now") Instant now);
+}
@@ -1,19 +1,76 @@
 package com.example.bookreview.repository;
 
 import com.example.bookreview.entity.Comment;
-import com.example.bookreview.entity.Review;
+import com.example.bookreview.repository.projection.CommentCountView;
+import com.example.bookreview.repository.projection.CommentExportRow;
+import com.example.bookreview.repository.projection.CommentView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     @Query("SELECT c FROM Comment c LEFT JOIN FETCH c.user WHERE c.id = :commentId")
     Optional<Comment> findByIdWithUser(@Param("commentId") Long commentId);
 
+    // последние :perReview комментариев каждой рецензии страницы одним запросом
+    @Query("SELECT t.id AS id, t.text AS text, t.createdAt AS createdAt, " +
+            "t.userUsername AS userUsername, t.reviewId AS reviewId FROM (" +
+            "SELECT c.id AS id, c.text AS text, c.createdAt AS createdAt, " +
+            "u.username AS userUsername, c.review.id AS reviewId, " +
+            "row_number() OVER (PARTITION BY c.review.id ORDER BY c.createdAt DESC, c.id DESC) AS rn " +
+            "FROM Comment c LEFT JOIN c.user u " +
+            "WHERE c.review.id IN :reviewIds) t " +
+            "WHERE t.rn <= :perReview " +
+            "ORDER BY t.createdAt ASC, t.id ASC")
+    List<CommentView> findLatestViewsByReviewIds(@Param("reviewIds") Collection<Long> reviewIds,
+                                                 @Param("perReview") int perReview);
+
+    @Query("SELECT c.review.id AS reviewId, COUNT(c) AS count FROM Comment c " +
+            "WHERE c.review.id IN :reviewIds GROUP BY c.review.id")
+    List<CommentCountView> countByReviewIds(@Param("reviewIds") Collection<Long> reviewIds);
+
+    // более ранние комментарии рецензии, от новых к старым (сервис разворачивает)
+    @Query("SELECT c.id AS id, c.text AS text, c.createdAt AS createdAt, " +
+            "u.username AS userUsername, c.review.id AS reviewId " +
+            "FROM Comment c LEFT JOIN c.user u " +
+            "WHERE c.review.id = :reviewId " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentView> findViewsByReviewIdBefore(@Param("reviewId") Long reviewId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id = :commentId")
+    int deleteByIdReturningCount(@Param("commentId") Long commentId);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id = :commentId AND c.user.id = :userId")
+    int deleteByIdAndUserId(@Param("commentId") Long commentId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.review.id = :reviewId")
+    int deleteByReviewId(@Param("reviewId") Long reviewId);
+
     @Query("SELECT c.review.id FROM Comment c WHERE c.id = :commentId")
     Optional<Long> findReviewIdByCommentId(@Param("commentId") Long commentId);
-}
\ No newline at end of file
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.bookreview.repository.projection.CommentExportRow(" +
+            "c.id, c.review.id, u.id, u.username, c.text, c.createdAt) " +
+            "FROM Comment c LEFT JOIN c.user u ORDER BY c.id")
+    Stream<CommentExportRow> streamForExport();
+}
@@ -1,13 +1,50 @@
 package com.example.bookreview.repository;
 
 import com.example.bookreview.entity.Like;
-import com.example.bookreview.entity.Review;
-import com.example.bookreview.entity.User;
+import com.example.bookreview.repository.projection.LikeToggleView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface LikeRepository extends JpaRepository<Like, Long> {
-    Optional<Like> findByUserAndReview(User user, Review review);
-    long countByReview(Review review);
+    // лайки пользователя только среди рецензий текущей страницы; покрывается индексом UNIQUE(user_id, review_id)
+    @Query("SELECT l.review.id FROM Like l WHERE l.user.id = :userId AND l.review.id IN :reviewIds")
+    Set<Long> findLikedReviewIds(@Param("userId") Long userId, @Param("reviewIds") Collection<Long> reviewIds);
+
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.review.id = :reviewId")
+    int deleteByReviewId(@Param("reviewId") Long reviewId);
+
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.user.id = :userId AND l.review.id = :reviewId")
+    int deleteByUserIdAndReviewId(@Param("userId") Long userId, @Param("reviewId") Long reviewId);
+
+    // вставка только если лайка ещё нет и рецензия чужая; дубликаты отсекает UNIQUE(user_id, review_id)
+    @Modifying
+    @Query(value = "INSERT INTO likes (user_id, review_id) " +
+            "SELECT :userId, r.id FROM review r " +
+            "WHERE r.id = :reviewId AND r.user_id <> :userId " +
+            "AND NOT EXISTS (SELECT 1 FROM likes l WHERE l.user_id = :userId AND l.review_id = :reviewId)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("reviewId") Long reviewId);
+
+    // только PostgreSQL: удаление или вставка лайка и обновление likes_count одним оператором
+    @Query(value = "WITH del AS (" +
+            "DELETE FROM likes WHERE user_id = :userId AND review_id = :reviewId RETURNING 1), " +
+            "ins AS (" +
+            "INSERT INTO likes (user_id, review_id) " +
+            "SELECT :userId, r.id FROM review r " +
+            "WHERE r.id = :reviewId AND r.user_id <> :userId AND NOT EXISTS (SELECT 1 FROM del) " +
+            "ON CONFLICT (user_id, review_id) DO NOTHING RETURNING 1), " +
+            "delta AS (SELECT (SELECT COUNT(*) FROM ins) - (SELECT COUNT(*) FROM del) AS value) " +
+            "UPDATE review SET likes_count = likes_count + (SELECT value FROM delta) " +
+            "WHERE id = :reviewId " +
+            "RETURNING likes_count AS \"likesCount\", (SELECT value FROM delta) AS \"delta\"",
+            nativeQuery = true)
+    Optional<LikeToggleView> toggleReturningCount(@Param("userId") Long userId, @Param("reviewId") Long reviewId);
 }
@@ -1,32 +1,80 @@
 package com.example.bookreview.repository;
 
-import com.example.bookreview.entity.Book;
 import com.example.bookreview.entity.Review;
-import com.example.bookreview.entity.User;
+import com.example.bookreview.repository.projection.LikesCount;
+import com.example.bookreview.repository.projection.ReviewExportRow;
+import com.example.bookreview.repository.projection.ReviewView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    // загружаем только пользователя и лайки
-    @Query("SELECT DISTINCT r FROM Review r " +
-            "LEFT JOIN FETCH r.user " +
-            "LEFT JOIN FETCH r.likes " +
-            "WHERE r.book = :book " +
-            "ORDER BY r.createdAt DESC")
-    List<Review> findByBookWithUserAndLikes(@Param("book") Book book);
-
-    // загрузка комментариев (без одновременной загрузки лайков)
-    @Query("SELECT DISTINCT r FROM Review r " +
-            "LEFT JOIN FETCH r.comments c " +
-            "LEFT JOIN FETCH c.user " +
-            "WHERE r.book = :book " +
-            "ORDER BY r.createdAt DESC, c.createdAt ASC")
-    List<Review> findByBookWithComments(@Param("book") Book book);
-
-    Optional<Review> findByBookAndUser(Book book, User user);
-}
\ No newline at end of file
+    // проекция для страницы книги: только нужные колонки, без графа сущностей
+    @Query("SELECT r.id AS id, r.text AS text, u.username AS username, r.likesCount AS likesCount, " +
+            "r.createdAt AS createdAt, r.updatedAt AS updatedAt " +
+            "FROM Review r LEFT JOIN r.user u " +
+            "WHERE r.book.id = :bookId " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewView> findViewsByBookId(@Param("bookId") Long bookId, Limit limit);
+
+    // следующая страница после курсора (createdAt, id), новые сверху
+    @Query("SELECT r.id AS id, r.text AS text, u.username AS username, r.likesCount AS likesCount, " +
+            "r.createdAt AS createdAt, r.updatedAt AS updatedAt " +
+            "FROM Review r LEFT JOIN r.user u " +
+            "WHERE r.book.id = :bookId " +
+            "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewView> findViewsByBookIdBefore(@Param("bookId") Long bookId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Limit limit);
+
+    long countByBookId(Long bookId);
+
+    @Query("SELECT r.user.id FROM Review r WHERE r.id = :reviewId")
+    Optional<Long> findAuthorIdById(@Param("reviewId") Long reviewId);
+
+    @Query("SELECT r.book.id FROM Review r WHERE r.id = :reviewId")
+    Optional<Long> findBookIdById(@Param("reviewId") Long reviewId);
+
+    @Query("SELECT r.likesCount FROM Review r WHERE r.id = :reviewId")
+    Optional<Long> findLikesCountById(@Param("reviewId") Long reviewId);
+
+    @Query("SELECT new com.example.bookreview.repository.projection.LikesCount(r.id, r.likesCount) " +
+            "FROM Review r WHERE r.id IN :reviewIds")
+    List<LikesCount> findLikesCountsByIdIn(@Param("reviewIds") Collection<Long> reviewIds);
+
+    @Modifying
+    @Query("DELETE FROM Review r WHERE r.id = :reviewId")
+    int deleteByIdReturningCount(@Param("reviewId") Long reviewId);
+
+    // атомарное изменение счётчика на стороне БД, без read-modify-write
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Review r SET r.likesCount = r.likesCount + :delta WHERE r.id = :reviewId")
+    int addToLikesCount(@Param("reviewId") Long reviewId, @Param("delta") long delta);
+
+    // пересчёт счётчика по таблице likes, затрагивает только расходящиеся строки
+    @Modifying
+    @Query("UPDATE Review r SET r.likesCount = " +
+            "(SELECT COUNT(l) FROM Like l WHERE l.review = r) " +
+            "WHERE r.likesCount <> (SELECT COUNT(l) FROM Like l WHERE l.review = r)")
+    int reconcileLikesCounts();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.bookreview.repository.projection.ReviewExportRow(" +
+            "r.id, r.book.id, u.id, u.username, r.text, r.likesCount, r.createdAt, r.updatedAt) " +
+            "FROM Review r LEFT JOIN r.user u ORDER BY r.id")
+    Stream<ReviewExportRow> streamForExport();
+}
@@ -0,0 +1,6 @@
+package com.example.bookreview.repository.projection;
+
+// строка выгрузки каталога: DTO-проекция, в контекст персистентности не попадает
+public record BookExportRow(Long id, String title, String author, String description,
+                            String coverUrl, String fileUrl, Boolean active) {
+}
@@ -0,0 +1,7 @@
+package com.example.bookreview.repository.projection;
+
+import java.time.Instant;
+
+// валидаторы условного GET страницы книги
+public record BookVersion(long version, Instant lastModified) {
+}
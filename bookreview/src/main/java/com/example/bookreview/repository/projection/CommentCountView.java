@@ -0,0 +1,6 @@
+package com.example.bookreview.repository.projection;
+
+public interface CommentCountView {
+    Long getReviewId();
+    long getCount();
+}
@@ -0,0 +1,7 @@
+package com.example.bookreview.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record CommentExportRow(Long id, Long reviewId, Long userId, String username, String text,
+                               LocalDateTime createdAt) {
+}
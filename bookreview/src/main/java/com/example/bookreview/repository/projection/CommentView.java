@@ -0,0 +1,14 @@
+package com.example.bookreview.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Колонки комментария, нужные странице книги; загружается без managed-сущностей.
+ */
+public interface CommentView {
+    Long getId();
+    String getText();
+    LocalDateTime getCreatedAt();
+    String getUserUsername();
+    Long getReviewId();
+}
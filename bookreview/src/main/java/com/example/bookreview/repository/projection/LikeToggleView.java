@@ -0,0 +1,9 @@
+package com.example.bookreview.repository.projection;
+
+/**
+ * Результат переключения лайка: новое значение счётчика и изменение (-1, 0, +1).
+ */
+public interface LikeToggleView {
+    long getLikesCount();
+    long getDelta();
+}
@@ -0,0 +1,5 @@
+package com.example.bookreview.repository.projection;
+
+// текущий счётчик лайков рецензии для живых обновлений
+public record LikesCount(Long reviewId, long likesCount) {
+}
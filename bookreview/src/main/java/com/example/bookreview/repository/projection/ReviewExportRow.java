@@ -0,0 +1,7 @@
+package com.example.bookreview.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record ReviewExportRow(Long id, Long bookId, Long userId, String username, String text,
+                              long likesCount, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
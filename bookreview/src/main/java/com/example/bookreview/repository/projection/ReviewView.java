@@ -0,0 +1,15 @@
+package com.example.bookreview.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Колонки рецензии, нужные странице книги; загружается без managed-сущностей.
+ */
+public interface ReviewView {
+    Long getId();
+    String getText();
+    String getUsername();
+    long getLikesCount();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
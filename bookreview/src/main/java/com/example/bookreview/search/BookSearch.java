@@ -0,0 +1,16 @@
+package com.example.bookreview.search;
+
+import com.example.bookreview.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Поиск подстроки в названии и авторе активных книг без учёта регистра.
+ * Реализация выбирается в SearchConfig по типу базы данных.
+ */
+public interface BookSearch {
+
+    Page<Book> searchByTitleOrAuthor(String query, Pageable pageable);
+
+    Page<Book> searchByAuthor(String author, Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package com.example.bookreview.search;
+
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Переносимый вариант на JPQL (H2 и прочие БД): LOWER(col) LIKE '%q%' без индекса.
+ */
+@RequiredArgsConstructor
+public class LikeBookSearch implements BookSearch {
+
+    private final BookRepository bookRepository;
+
+    @Override
+    public Page<Book> searchByTitleOrAuthor(String query, Pageable pageable) {
+        return bookRepository.findByTitleOrAuthorContainingIgnoreCase(query, pageable);
+    }
+
+    @Override
+    public Page<Book> searchByAuthor(String author, Pageable pageable) {
+        return bookRepository.findByAuthorContainingIgnoreCase(author, pageable);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.bookreview.search;
+
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * PostgreSQL: GIN-индексы pg_trgm по lower(title) и lower(author).
+ * Запросы используют то же выражение lower(col) LIKE '%' || lower(q) || '%',
+ * что и JPQL-вариант, поэтому результаты и регистр (в т.ч. кириллица) совпадают,
+ * но планировщик может выполнить их через bitmap index scan.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TrigramBookSearch implements BookSearch {
+
+    private static final String[] INDEX_DDL = {
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_book_title_trgm ON book USING gin (lower(title) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_book_author_trgm ON book USING gin (lower(author) gin_trgm_ops)"
+    };
+
+    private final BookRepository bookRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public void ensureIndexes() {
+        try {
+            for (String ddl : INDEX_DDL) {
+                jdbcTemplate.execute(ddl);
+            }
+        } catch (DataAccessException e) {
+            // без расширения поиск остаётся корректным, просто без индекса
+            log.warn("Trigram indexes are not available, search falls back to sequential scan: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Page<Book> searchByTitleOrAuthor(String query, Pageable pageable) {
+        return bookRepository.searchActiveByTitleOrAuthorTrgm(query, pageable);
+    }
+
+    @Override
+    public Page<Book> searchByAuthor(String author, Pageable pageable) {
+        return bookRepository.searchActiveByAuthorTrgm(author, pageable);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.bookreview.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+
+/**
+ * Подбор cost BCrypt под целевую задержку одного хеширования на текущем железе
+ */
+@Slf4j
+public final class BcryptCostCalibrator {
+
+    private static final int PROBE_COST = 8;
+    private static final int PROBE_ROUNDS = 3;
+    private static final String PROBE_PASSWORD = "calibration-probe-1";
+
+    private BcryptCostCalibrator() {
+    }
+
+    // каждый шаг cost удваивает работу, поэтому достаточно замерить один дешёвый уровень
+    public static int calibrate(Duration targetLatency, int minCost, int maxCost) {
+        long probeNanos = measure(PROBE_COST);
+        long targetNanos = targetLatency.toNanos();
+
+        int cost = minCost;
+        while (cost < maxCost && estimate(probeNanos, cost + 1) <= targetNanos) {
+            cost++;
+        }
+
+        long selectedMillis = estimate(probeNanos, cost) / 1_000_000;
+        if (estimate(probeNanos, cost) > targetNanos) {
+            // цель недостижима на этом узле: калибровка ничего не выбирала
+            log.warn("BCrypt cost clamped to min-cost {}: ~{} ms per hash exceeds target {} ms",
+                    cost, selectedMillis, targetLatency.toMillis());
+        } else if (cost == maxCost && estimate(probeNanos, cost + 1) <= targetNanos) {
+            log.info("BCrypt cost clamped to max-cost {}: ~{} ms per hash, target {} ms",
+                    cost, selectedMillis, targetLatency.toMillis());
+        } else {
+            log.info("BCrypt cost {} selected: ~{} ms per hash, target {} ms",
+                    cost, selectedMillis, targetLatency.toMillis());
+        }
+        return cost;
+    }
+
+    private static long measure(int cost) {
+        String salt = BCrypt.gensalt(cost);
+        BCrypt.hashpw(PROBE_PASSWORD, salt); // прогрев JIT
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(PROBE_PASSWORD, salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static long estimate(long probeNanos, int cost) {
+        return probeNanos << (cost - PROBE_COST);
+    }
+}
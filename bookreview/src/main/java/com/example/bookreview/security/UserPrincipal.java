@@ -0,0 +1,31 @@
+package com.example.bookreview.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+
+/**
+ * Аутентифицированный пользователь: id и роль определяются один раз при входе
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class UserPrincipal extends User {
+
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    private final Long id;
+    private final String role;
+
+    public UserPrincipal(Long id, String username, String password, String role) {
+        super(username, password, Collections.singletonList(new SimpleGrantedAuthority(role)));
+        this.id = id;
+        this.role = role;
+    }
+
+    public boolean isAdmin() {
+        return ROLE_ADMIN.equals(role);
+    }
+}
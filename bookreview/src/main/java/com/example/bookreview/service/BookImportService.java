@@ -0,0 +1,231 @@
+package com.example.bookreview.service;
+
+import com.example.bookreview.config.CacheConfig;
+import com.example.bookreview.dto.BookCreateDto;
+import com.example.bookreview.dto.BookImportError;
+import com.example.bookreview.dto.BookImportProgress;
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.mapper.BookMapper;
+import com.example.bookreview.repository.BookRepository;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Потоковый импорт каталога из CSV (с заголовком title,author,description,coverUrl,fileUrl) или NDJSON.
+ * Строки читаются по одной, дубликаты названий отсекаются по множеству, загруженному из БД один раз,
+ * вставка идёт пакетами в отдельных транзакциях. После каждого пакета вызывается listener с прогрессом.
+ */
+@Slf4j
+@Service
+@Timed("bookreview.service")
+@RequiredArgsConstructor
+public class BookImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final int BATCH_SIZE = 500;
+    // сверх лимита ошибки только считаются, чтобы отчёт по битому файлу не рос без границ
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    public BookImportProgress importBooks(InputStream input, Format format,
+                                          Consumer<BookImportProgress> listener) throws IOException {
+        ImportState state = new ImportState(loadActiveTitles());
+
+        try (MappingIterator<BookCreateDto> rows = reader(format).readValues(input)) {
+            while (true) {
+                long line = rows.getCurrentLocation().getLineNr();
+                BookCreateDto dto;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    line = rows.getCurrentLocation().getLineNr();
+                    dto = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    // значение не подходит по типу: строку пропускаем, разбор продолжается
+                    state.rows++;
+                    state.fail(line, null, e.getOriginalMessage());
+                    continue;
+                } catch (JacksonException e) {
+                    // синтаксис файла нарушен, дальше читать нельзя
+                    state.fail(line, null, "Файл не разобран: " + e.getOriginalMessage());
+                    break;
+                }
+                state.rows++;
+                accept(dto, line, state);
+                if (state.batch.size() == BATCH_SIZE) {
+                    flush(state);
+                    listener.accept(state.progress(false));
+                }
+            }
+        }
+        flush(state);
+
+        BookImportProgress result = state.progress(true);
+        listener.accept(result);
+        log.info("Book import finished: {} rows, {} imported, {} duplicates, {} failed",
+                result.getRows(), result.getImported(), result.getDuplicates(), result.getFailed());
+        return result;
+    }
+
+    private void accept(BookCreateDto dto, long line, ImportState state) {
+        Set<ConstraintViolation<BookCreateDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            state.fail(line, dto.getTitle(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return;
+        }
+        // дубликаты и с базой, и внутри файла
+        if (!state.titles.add(titleKey(dto.getTitle()))) {
+            state.duplicates++;
+            return;
+        }
+
+        Book book = bookMapper.toEntity(dto);
+        book.setIsActive(true);
+        book.setCoverUrl(BookService.getValidCoverUrl(dto.getCoverUrl()));
+        state.batch.add(book);
+        state.batchLines.add(line);
+    }
+
+    private void flush(ImportState state) {
+        if (state.batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                bookRepository.saveAll(state.batch);
+                entityManager.flush();
+            });
+            state.imported += state.batch.size();
+        } catch (DataAccessException e) {
+            // пакет откатился целиком: помечаем все его строки
+            String message = "Не удалось сохранить: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (int i = 0; i < state.batch.size(); i++) {
+                Book book = state.batch.get(i);
+                state.titles.remove(titleKey(book.getTitle()));
+                state.fail(state.batchLines.get(i), book.getTitle(), message);
+            }
+        } finally {
+            // контекст open-in-view живёт весь запрос: не копим в нём импортированные книги
+            entityManager.clear();
+            state.batch.clear();
+            state.batchLines.clear();
+        }
+        evictCatalogCaches();
+    }
+
+    private Set<String> loadActiveTitles() {
+        return transactionTemplate.execute(status -> {
+            try (Stream<String> titles = bookRepository.streamActiveTitles()) {
+                Set<String> keys = new HashSet<>();
+                titles.forEach(title -> keys.add(titleKey(title)));
+                return keys;
+            }
+        });
+    }
+
+    private ObjectReader reader(Format format) {
+        if (format == Format.CSV) {
+            return CSV_MAPPER.readerFor(BookCreateDto.class).with(CsvSchema.emptySchema().withHeader());
+        }
+        return objectMapper.readerFor(BookCreateDto.class);
+    }
+
+    private void evictCatalogCaches() {
+        for (String name : List.of(CacheConfig.AUTHORS, CacheConfig.CATALOG_PAGES)) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private static String titleKey(String title) {
+        return title.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class ImportState {
+        private final Set<String> titles;
+        private final List<Book> batch = new ArrayList<>(BATCH_SIZE);
+        private final List<Long> batchLines = new ArrayList<>(BATCH_SIZE);
+        private List<BookImportError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long duplicates;
+        private long failed;
+
+        private ImportState(Set<String> titles) {
+            this.titles = titles;
+        }
+
+        private void fail(long line, String title, String message) {
+            if (failed < MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportError(line, title, message));
+            }
+            failed++;
+        }
+
+        // ошибки отдаются один раз, в ближайшем отчёте
+        private BookImportProgress progress(boolean finished) {
+            BookImportProgress progress = BookImportProgress.builder()
+                    .rows(rows)
+                    .imported(imported)
+                    .duplicates(duplicates)
+                    .failed(failed)
+                    .finished(finished)
+                    .errors(errors)
+                    .build();
+            errors = new ArrayList<>();
+            return progress;
+        }
+    }
+}
@@ -1,31 +1,53 @@
 package com.example.bookreview.service;
 
+import com.example.bookreview.config.CacheConfig;
 import com.example.bookreview.dto.BookCreateDto;
+import com.example.bookreview.dto.BookCursorPage;
 import com.example.bookreview.dto.BookDto;
 import com.example.bookreview.entity.Book;
 import com.example.bookreview.exception.BusinessException;
 import com.example.bookreview.exception.ResourceNotFoundException;
 import com.example.bookreview.mapper.BookMapper;
 import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.projection.BookVersion;
+import com.example.bookreview.search.BookSearch;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("bookreview.service")
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookService {
 
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
+    private final BookSearch bookSearch;
 
     private static final String DEFAULT_COVER_URL = "https://i.pinimg.com/736x/69/e8/c8/69e8c85300a6d61b2b188930b4f2881b.jpg";
     private static final int BOOKS_PER_PAGE = 9;
+    // до этого размера каталога оставляем обычную постраничную навигацию с номерами
+    private static final int KEYSET_THRESHOLD = 1000;
 
+    @Cacheable(cacheNames = CacheConfig.CATALOG_PAGES, key = "#pageable")
     public Page<BookDto> getAllBooks(Pageable pageable) {
         Page<Book> bookPage = bookRepository.findByIsActiveTrue(pageable);
         List<BookDto> bookDtos = bookPage.getContent().stream()
@@ -35,11 +57,64 @@ public class BookService {
         return new PageImpl<>(bookDtos, pageable, bookPage.getTotalElements());
     }
 
+    @Cacheable(cacheNames = CacheConfig.CATALOG_PAGES, key = "'keyset-probe'")
+    public boolean isKeysetPaginationPreferred() {
+        return !bookRepository.findActiveIds(PageRequest.of(KEYSET_THRESHOLD, 1)).isEmpty();
+    }
+
+    @Cacheable(cacheNames = CacheConfig.CATALOG_PAGES, key = "'cursor:' + #after + ':' + #before")
+    public BookCursorPage getBooksByCursor(String after, String before) {
+        Limit limit = Limit.of(BOOKS_PER_PAGE + 1);
+        boolean backward = after == null && before != null;
+
+        List<Book> books;
+        if (after != null) {
+            BookCursor cursor = decodeCursor(after);
+            books = bookRepository.findActiveAfter(cursor.title(), cursor.id(), limit);
+        } else if (before != null) {
+            BookCursor cursor = decodeCursor(before);
+            books = bookRepository.findActiveBefore(cursor.title(), cursor.id(), limit);
+        } else {
+            books = bookRepository.findActiveFirstPage(limit);
+        }
+
+        boolean hasMore = books.size() > BOOKS_PER_PAGE;
+        books = new ArrayList<>(hasMore ? books.subList(0, BOOKS_PER_PAGE) : books);
+        if (backward) {
+            Collections.reverse(books);
+        }
+
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!books.isEmpty()) {
+            Book first = books.get(0);
+            Book last = books.get(books.size() - 1);
+            if (backward) {
+                nextCursor = encodeCursor(last);
+                prevCursor = hasMore ? encodeCursor(first) : null;
+            } else {
+                nextCursor = hasMore ? encodeCursor(last) : null;
+                prevCursor = after != null ? encodeCursor(first) : null;
+            }
+        }
+
+        List<BookDto> bookDtos = books.stream()
+                .map(bookMapper::toDto)
+                .peek(this::setDefaultCoverIfNeeded)
+                .collect(Collectors.toList());
+
+        return BookCursorPage.builder()
+                .content(bookDtos)
+                .nextCursor(nextCursor)
+                .prevCursor(prevCursor)
+                .build();
+    }
+
     public Page<BookDto> searchBooks(String query, Pageable pageable) {
         if (query == null || query.trim().isEmpty()) {
             return getAllBooks(pageable);
         }
-        Page<Book> bookPage = bookRepository.findByTitleOrAuthorContainingIgnoreCase(query.trim(), pageable);
+        Page<Book> bookPage = bookSearch.searchByTitleOrAuthor(query.trim(), pageable);
         List<BookDto> bookDtos = bookPage.getContent().stream()
                 .map(bookMapper::toDto)
                 .peek(this::setDefaultCoverIfNeeded)
@@ -51,7 +126,7 @@ public class BookService {
         if (author == null || author.trim().isEmpty() || "all".equals(author)) {
             return getAllBooks(pageable);
         }
-        Page<Book> bookPage = bookRepository.findByAuthorContainingIgnoreCase(author.trim(), pageable);
+        Page<Book> bookPage = bookSearch.searchByAuthor(author.trim(), pageable);
         List<BookDto> bookDtos = bookPage.getContent().stream()
                 .map(bookMapper::toDto)
                 .peek(this::setDefaultCoverIfNeeded)
@@ -65,6 +140,12 @@ public class BookService {
         return bookMapper.toDto(book);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.CATALOG_PAGES, allEntries = true)
+    })
+    @Transactional
     public BookDto updateBook(Long id, BookCreateDto dto) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Книга", id));
@@ -80,9 +161,15 @@ public class BookService {
         book.setFileUrl(dto.getFileUrl());
 
         bookRepository.save(book);
+        bookRepository.touchActivity(id, Instant.now());
         return bookMapper.toDto(book);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.CATALOG_PAGES, allEntries = true)
+    })
+    @Transactional
     public BookDto createBook(BookCreateDto dto) {
         if (bookRepository.existsByTitleIgnoreCase(dto.getTitle())) {
             throw new BusinessException("Книга с названием '" + dto.getTitle() + "' уже существует");
@@ -98,13 +185,21 @@ public class BookService {
         return result;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.CATALOG_PAGES, allEntries = true)
+    })
+    @Transactional
     public void deactivateBook(Long id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Книга", id));
         book.setIsActive(false);
         bookRepository.save(book);
+        bookRepository.touchActivity(id, Instant.now());
     }
 
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#id")
     public BookDto getBookById(Long id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Книга", id));
@@ -120,6 +215,17 @@ public class BookService {
         return dto;
     }
 
+    // для условного GET: одно чтение по первичному ключу, null — книги нет
+    public BookVersion getBookVersion(Long id) {
+        return bookRepository.findVersionById(id).orElse(null);
+    }
+
+    // для условного GET каталога; null, если книг ещё нет
+    public Instant getCatalogLastModified() {
+        return bookRepository.findCatalogLastModified().orElse(null);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.AUTHORS, key = "'all'")
     public List<String> getAllAuthors() {
         return bookRepository.findAllActiveAuthors();
     }
@@ -134,13 +240,33 @@ public class BookService {
         }
     }
 
-    private String getValidCoverUrl(String coverUrl) {
+    // также используется импортом каталога
+    static String getValidCoverUrl(String coverUrl) {
         if (coverUrl == null || coverUrl.trim().isEmpty()) {
             return DEFAULT_COVER_URL;
         }
         return coverUrl;
     }
 
+    private String encodeCursor(Book book) {
+        String raw = book.getId() + ":" + book.getTitle();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private BookCursor decodeCursor(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new BookCursor(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BusinessException("Некорректная ссылка на страницу каталога");
+        }
+    }
+
+    private record BookCursor(Long id, String title) {
+    }
+
     private boolean isValidUrl(String url) {
         try {
             new java.net.URL(url);
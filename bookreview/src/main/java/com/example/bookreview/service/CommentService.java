@@ -3,67 +3,80 @@ package com.example.bookreview.service;
 import com.example.bookreview.dto.CommentCreateDto;
 import com.example.bookreview.dto.CommentDto;
 import com.example.bookreview.entity.Comment;
-import com.example.bookreview.entity.Review;
-import com.example.bookreview.entity.User;
 import com.example.bookreview.exception.BusinessException;
 import com.example.bookreview.exception.ResourceNotFoundException;
+import com.example.bookreview.live.CommentAdded;
 import com.example.bookreview.mapper.CommentMapper;
+import com.example.bookreview.repository.BookRepository;
 import com.example.bookreview.repository.CommentRepository;
 import com.example.bookreview.repository.ReviewRepository;
 import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
 
 @Service
+@Timed("bookreview.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class CommentService {
 
     private final CommentRepository commentRepository;
     private final ReviewRepository reviewRepository;
+    private final BookRepository bookRepository;
     private final UserRepository userRepository;
     private final CommentMapper commentMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
-    public CommentDto addComment(CommentCreateDto commentCreateDto, String username) {
-        Review review = reviewRepository.findById(commentCreateDto.getReviewId())
-                .orElseThrow(() -> new ResourceNotFoundException("Рецензия", commentCreateDto.getReviewId()));
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Пользователь", username));
-
+    public CommentDto addComment(CommentCreateDto commentCreateDto, UserPrincipal currentUser) {
+        if (commentCreateDto.getText().length() > ConstraintViolations.MAX_TEXT_LENGTH) {
+            throw new BusinessException("Комментарий не должен превышать "
+                    + ConstraintViolations.MAX_TEXT_LENGTH + " символов");
+        }
         Comment comment = new Comment();
         comment.setText(commentCreateDto.getText());
-        comment.setReview(review);
-        comment.setUser(user);
+        comment.setReview(reviewRepository.getReferenceById(commentCreateDto.getReviewId()));
+        comment.setUser(userRepository.getReferenceById(currentUser.getId()));
         comment.setCreatedAt(LocalDateTime.now());
         comment.setUpdatedAt(LocalDateTime.now());
 
-        commentRepository.save(comment);
-        return commentMapper.toDto(comment);
+        // существование рецензии проверяет внешний ключ, без отдельного SELECT
+        try {
+            commentRepository.saveAndFlush(comment);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isForeignKeyViolation(e)) {
+                throw new ResourceNotFoundException("Рецензия", commentCreateDto.getReviewId());
+            }
+            throw e;
+        }
+        bookRepository.touchActivityByReviewId(commentCreateDto.getReviewId(), Instant.now());
+        CommentDto result = commentMapper.toDto(comment, currentUser.getUsername());
+        eventPublisher.publishEvent(new CommentAdded(result));
+        return result;
     }
 
     @Transactional
-    public void deleteComment(Long commentId, String username) {
-        Comment comment = commentRepository.findByIdWithUser(commentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Комментарий", commentId));
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Пользователь", username));
+    public void deleteComment(Long commentId, UserPrincipal currentUser) {
+        // до удаления, пока комментарий ещё ведёт к книге; при отказе транзакция откатится
+        bookRepository.touchActivityByCommentId(commentId, Instant.now());
+        int deleted = currentUser.isAdmin()
+                ? commentRepository.deleteByIdReturningCount(commentId)
+                : commentRepository.deleteByIdAndUserId(commentId, currentUser.getId());
 
-        boolean isAuthor = comment.getUser().getId().equals(user.getId());
-        boolean isAdmin = user.getRole().equals("ROLE_ADMIN");
-
-        if (!isAuthor && !isAdmin) {
+        if (deleted == 0) {
+            if (!commentRepository.existsById(commentId)) {
+                throw new ResourceNotFoundException("Комментарий", commentId);
+            }
             throw new BusinessException("У вас нет прав для удаления этого комментария");
         }
-
-        commentRepository.delete(comment);
     }
 
     public Long getReviewIdByCommentId(Long commentId) {
@@ -72,8 +85,7 @@ public class CommentService {
     }
 
     public Long getBookIdByReviewId(Long reviewId) {
-        Review review = reviewRepository.findById(reviewId)
+        return reviewRepository.findBookIdById(reviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("Рецензия", reviewId));
-        return review.getBook().getId();
     }
 }
\ No newline at end of file
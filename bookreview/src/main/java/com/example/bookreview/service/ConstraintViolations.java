@@ -0,0 +1,38 @@
+package com.example.bookreview.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Разбор нарушений ограничений БД при записях без предварительных SELECT.
+ * Остальные DataIntegrityViolationException (слишком длинный текст, NOT NULL) пробрасываются как есть.
+ */
+final class ConstraintViolations {
+
+    // совпадает с длиной text в Review и Comment
+    static final int MAX_TEXT_LENGTH = 1000;
+
+    // PostgreSQL foreign_key_violation; H2 — ссылка на несуществующую строку
+    private static final Set<String> FOREIGN_KEY_STATES = Set.of("23503", "23506");
+
+    private ConstraintViolations() {
+    }
+
+    static boolean isViolationOf(DataIntegrityViolationException e, String constraint) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase().contains(constraint);
+    }
+
+    static boolean isForeignKeyViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && sql.getSQLState() != null) {
+                return FOREIGN_KEY_STATES.contains(sql.getSQLState());
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.bookreview.service;
+
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.CommentRepository;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.projection.BookExportRow;
+import com.example.bookreview.repository.projection.CommentExportRow;
+import com.example.bookreview.repository.projection.ReviewExportRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка каталога, рецензий (с числом лайков) и комментариев в NDJSON или CSV.
+ * Строки читаются DTO-проекциями через курсор с фиксированным fetch size и сразу пишутся в выходной поток:
+ * память не зависит от объёма таблицы, managed-сущности не создаются. Медленный клиент тормозит
+ * запись в сокет, а вместе с ней и чтение курсора.
+ */
+@Service
+@Timed("bookreview.service")
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExportService {
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .findAndAddModules()
+            // колонки в порядке компонентов записи, а не по алфавиту (умолчание CsvMapper)
+            .disable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final BookRepository bookRepository;
+    private final ReviewRepository reviewRepository;
+    private final CommentRepository commentRepository;
+    private final ObjectMapper objectMapper;
+
+    public long exportBooks(Format format, OutputStream output) throws IOException {
+        try (Stream<BookExportRow> rows = bookRepository.streamForExport()) {
+            return write(rows, BookExportRow.class, format, output);
+        }
+    }
+
+    public long exportReviews(Format format, OutputStream output) throws IOException {
+        try (Stream<ReviewExportRow> rows = reviewRepository.streamForExport()) {
+            return write(rows, ReviewExportRow.class, format, output);
+        }
+    }
+
+    public long exportComments(Format format, OutputStream output) throws IOException {
+        try (Stream<CommentExportRow> rows = commentRepository.streamForExport()) {
+            return write(rows, CommentExportRow.class, format, output);
+        }
+    }
+
+    private long write(Stream<?> rows, Class<?> type, Format format, OutputStream output) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = writer(type, format).writeValues(output)) {
+            Iterator<?> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                count++;
+            }
+        }
+        if (format == Format.NDJSON && count > 0) {
+            output.write('\n');
+        }
+        return count;
+    }
+
+    // без сброса после каждой строки: буферы Jackson и контейнера отправляют данные порциями
+    private ObjectWriter writer(Class<?> type, Format format) {
+        ObjectWriter writer = format == Format.CSV
+                ? CSV_MAPPER.writerFor(type).with(CSV_MAPPER.schemaFor(type).withHeader())
+                : objectMapper.writerFor(type).withRootValueSeparator("\n");
+        // поток ответа закрывает контейнер
+        return writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.bookreview.service;
+
+import com.example.bookreview.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор (createdAt, id) для лент рецензий и комментариев.
+ */
+record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    static String encode(LocalDateTime createdAt, Long id) {
+        String raw = id + "|" + createdAt;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(separator + 1)),
+                    Long.parseLong(raw.substring(0, separator)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("Некорректная ссылка на страницу");
+        }
+    }
+}
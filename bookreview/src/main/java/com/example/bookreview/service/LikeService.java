@@ -1,47 +1,75 @@
 package com.example.bookreview.service;
 
-import com.example.bookreview.entity.Like;
-import com.example.bookreview.entity.Review;
-import com.example.bookreview.entity.User;
+import com.example.bookreview.config.DatabasePlatform;
 import com.example.bookreview.exception.BusinessException;
 import com.example.bookreview.exception.ResourceNotFoundException;
+import com.example.bookreview.live.LikeCountChanged;
+import com.example.bookreview.repository.BookRepository;
 import com.example.bookreview.repository.LikeRepository;
 import com.example.bookreview.repository.ReviewRepository;
-import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.repository.projection.LikeToggleView;
+import com.example.bookreview.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.Instant;
 
 @Service
+@Timed("bookreview.service")
 @RequiredArgsConstructor
 public class LikeService {
 
     private final LikeRepository likeRepository;
     private final ReviewRepository reviewRepository;
-    private final UserRepository userRepository;
+    private final BookRepository bookRepository;
+    private final DatabasePlatform databasePlatform;
+    // живые обновления страницы книги, рассылаются после коммита (BookEventHub)
+    private final ApplicationEventPublisher eventPublisher;
 
-    public long likeReview(Long reviewId, String username) {
-        Review review = reviewRepository.findById(reviewId)
-                .orElseThrow(() -> new ResourceNotFoundException("Рецензия", reviewId));
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Пользователь", username));
+    @Transactional
+    public long likeReview(Long reviewId, UserPrincipal currentUser) {
+        Long userId = currentUser.getId();
 
-        if (review.getUser().getId().equals(user.getId())) {
-            throw new BusinessException("Нельзя оценивать собственную рецензию");
+        if (databasePlatform.isPostgres()) {
+            LikeToggleView result = likeRepository.toggleReturningCount(userId, reviewId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Рецензия", reviewId));
+            if (result.getDelta() == 0) {
+                checkNotOwnReview(reviewId, userId);
+            } else {
+                bookRepository.touchActivityByReviewId(reviewId, Instant.now());
+                eventPublisher.publishEvent(new LikeCountChanged(reviewId));
+            }
+            return result.getLikesCount();
         }
 
-        Optional<Like> existingLike = likeRepository.findByUserAndReview(user, review);
-
-        if (existingLike.isPresent()) {
-            likeRepository.delete(existingLike.get());
+        int delta = -likeRepository.deleteByUserIdAndReviewId(userId, reviewId);
+        if (delta == 0) {
+            delta = likeRepository.insertIfAbsent(userId, reviewId);
+        }
+        if (delta == 0) {
+            checkNotOwnReview(reviewId, userId);
         } else {
-            Like like = new Like();
-            like.setUser(user);
-            like.setReview(review);
-            likeRepository.save(like);
+            reviewRepository.addToLikesCount(reviewId, delta);
+            bookRepository.touchActivityByReviewId(reviewId, Instant.now());
         }
 
-        return likeRepository.countByReview(review);
+        long likesCount = reviewRepository.findLikesCountById(reviewId)
+                .orElseThrow(() -> new ResourceNotFoundException("Рецензия", reviewId));
+        if (delta != 0) {
+            eventPublisher.publishEvent(new LikeCountChanged(reviewId));
+        }
+        return likesCount;
+    }
+
+    // ничего не изменилось: рецензии нет, она своя или параллельный запрос уже поставил лайк
+    private void checkNotOwnReview(Long reviewId, Long userId) {
+        Long authorId = reviewRepository.findAuthorIdById(reviewId)
+                .orElseThrow(() -> new ResourceNotFoundException("Рецензия", reviewId));
+        if (authorId.equals(userId)) {
+            throw new BusinessException("Нельзя оценивать собственную рецензию");
+        }
     }
-}
\ No newline at end of file
+}
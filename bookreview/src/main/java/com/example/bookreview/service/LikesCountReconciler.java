@@ -0,0 +1,45 @@
+package com.example.bookreview.service;
+
+import com.example.bookreview.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Сверяет денормализованный reviews.likes_count с таблицей likes.
+ * При старте заполняет счётчик для существующих данных, затем периодически
+ * исправляет расхождения (ручные правки в БД, удаления мимо LikeService).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LikesCountReconciler {
+
+    private final ReviewRepository reviewRepository;
+
+    @Value("${bookreview.likes.reconcile-on-startup:true}")
+    private boolean reconcileOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillOnStartup() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${bookreview.likes.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public int reconcile() {
+        int updated = reviewRepository.reconcileLikesCounts();
+        if (updated > 0) {
+            log.info("Likes count reconciled for {} reviews", updated);
+        }
+        return updated;
+    }
+}
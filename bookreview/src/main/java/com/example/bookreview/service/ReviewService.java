@@ -1,29 +1,43 @@
 package com.example.bookreview.service;
 
 import com.example.bookreview.dto.CommentDto;
+import com.example.bookreview.dto.CommentPage;
 import com.example.bookreview.dto.ReviewDto;
-import com.example.bookreview.entity.Book;
-import com.example.bookreview.entity.Comment;
+import com.example.bookreview.dto.ReviewPage;
 import com.example.bookreview.entity.Review;
-import com.example.bookreview.entity.User;
 import com.example.bookreview.exception.BusinessException;
 import com.example.bookreview.exception.ResourceNotFoundException;
+import com.example.bookreview.live.ReviewAdded;
 import com.example.bookreview.mapper.CommentMapper;
 import com.example.bookreview.mapper.ReviewMapper;
 import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.CommentRepository;
+import com.example.bookreview.repository.LikeRepository;
 import com.example.bookreview.repository.ReviewRepository;
 import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.repository.projection.CommentCountView;
+import com.example.bookreview.repository.projection.CommentView;
+import com.example.bookreview.repository.projection.ReviewView;
+import com.example.bookreview.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("bookreview.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ReviewService {
@@ -31,109 +45,187 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
     private final ReviewMapper reviewMapper;
     private final CommentMapper commentMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int REVIEWS_PER_PAGE = 10;
+    private static final int COMMENTS_PREVIEW = 3;
+    private static final int COMMENTS_PER_PAGE = 20;
+    private static final String UNIQUE_BOOK_USER = "uk_review_book_user";
 
     @Transactional
-    public ReviewDto addReview(Long bookId, String username, String text) {
+    public ReviewDto addReview(Long bookId, UserPrincipal currentUser, String text) {
         if (text == null || text.trim().isEmpty()) {
             throw new BusinessException("Текст рецензии не может быть пустым");
         }
-
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new ResourceNotFoundException("Книга", bookId));
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Пользователь", username));
-
-        if (reviewRepository.findByBookAndUser(book, user).isPresent()) {
-            throw new BusinessException("Вы уже оставляли рецензию на эту книгу");
-        }
+        checkLength(text);
 
         Review review = new Review();
-        review.setBook(book);
-        review.setUser(user);
+        review.setBook(bookRepository.getReferenceById(bookId));
+        review.setUser(userRepository.getReferenceById(currentUser.getId()));
         review.setText(text);
         review.setCreatedAt(LocalDateTime.now());
         review.setUpdatedAt(LocalDateTime.now());
 
-        reviewRepository.save(review);
-        return reviewMapper.toDto(review);
+        // повторную рецензию и несуществующую книгу отсекают ограничения БД, без предварительных SELECT
+        try {
+            reviewRepository.saveAndFlush(review);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, UNIQUE_BOOK_USER)) {
+                throw new BusinessException("Вы уже оставляли рецензию на эту книгу");
+            }
+            if (ConstraintViolations.isForeignKeyViolation(e)) {
+                throw new ResourceNotFoundException("Книга", bookId);
+            }
+            throw e;
+        }
+        bookRepository.touchActivity(bookId, Instant.now());
+        ReviewDto result = reviewMapper.toDto(review, currentUser.getUsername());
+        eventPublisher.publishEvent(new ReviewAdded(bookId, result));
+        return result;
     }
 
-    public List<ReviewDto> getReviewsForBook(long bookId, String currentUsername) {
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new ResourceNotFoundException("Книга", bookId));
+    public ReviewPage getReviewPage(long bookId, Long currentUserId, String after) {
+        Limit limit = Limit.of(REVIEWS_PER_PAGE + 1);
+        List<ReviewView> reviews;
+        if (after == null) {
+            reviews = reviewRepository.findViewsByBookId(bookId, limit);
+            if (reviews.isEmpty() && !bookRepository.existsById(bookId)) {
+                throw new ResourceNotFoundException("Книга", bookId);
+            }
+        } else {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            reviews = reviewRepository.findViewsByBookIdBefore(bookId, cursor.createdAt(), cursor.id(), limit);
+        }
 
-        List<Review> reviews = reviewRepository.findByBookWithUserAndLikes(book);
-        List<Review> reviewsWithComments = reviewRepository.findByBookWithComments(book);
+        boolean hasMore = reviews.size() > REVIEWS_PER_PAGE;
+        if (hasMore) {
+            reviews = reviews.subList(0, REVIEWS_PER_PAGE);
+        }
 
-        Map<Long, List<CommentDto>> commentsByReviewId = extractCommentsMap(reviewsWithComments);
-        List<ReviewDto> reviewDtos = reviewMapper.toDtoList(reviews);
+        List<ReviewDto> reviewDtos = reviews.stream()
+                .map(reviewMapper::toDto)
+                .collect(Collectors.toList());
 
-        if (currentUsername != null) {
-            setLikedStatusForUser(reviewDtos, reviews, currentUsername);
+        if (!reviewDtos.isEmpty()) {
+            if (currentUserId != null) {
+                setLikedStatusForUser(reviewDtos, currentUserId);
+            }
+            setCommentsForReviews(reviewDtos);
         }
 
-        setCommentsForReviews(reviewDtos, commentsByReviewId);
-        return reviewDtos;
+        ReviewView last = hasMore ? reviews.get(reviews.size() - 1) : null;
+        return ReviewPage.builder()
+                .content(reviewDtos)
+                .nextCursor(last != null ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null)
+                .totalCount(after == null ? reviewRepository.countByBookId(bookId) : 0)
+                .build();
     }
 
-    private Map<Long, List<CommentDto>> extractCommentsMap(List<Review> reviewsWithComments) {
-        return reviewsWithComments.stream()
-                .collect(Collectors.toMap(
-                        Review::getId,
-                        review -> {
-                            if (review.getComments() == null) {
-                                return new ArrayList<>();
-                            }
-                            List<Comment> nonNullComments = review.getComments().stream()
-                                    .filter(comment -> comment != null)
-                                    .collect(Collectors.toList());
-                            return commentMapper.toDtoList(nonNullComments);
-                        }
-                ));
+    public CommentPage getOlderComments(Long reviewId, String before) {
+        KeysetCursor cursor = KeysetCursor.decode(before);
+        List<CommentView> comments = commentRepository.findViewsByReviewIdBefore(
+                reviewId, cursor.createdAt(), cursor.id(), Limit.of(COMMENTS_PER_PAGE + 1));
+
+        boolean hasOlder = comments.size() > COMMENTS_PER_PAGE;
+        List<CommentDto> commentDtos = (hasOlder ? comments.subList(0, COMMENTS_PER_PAGE) : comments).stream()
+                .map(commentMapper::toDto)
+                .collect(Collectors.toCollection(ArrayList::new));
+        Collections.reverse(commentDtos);
+
+        return CommentPage.builder()
+                .reviewId(reviewId)
+                .content(commentDtos)
+                .olderCursor(hasOlder ? cursorOf(commentDtos.get(0)) : null)
+                .build();
     }
 
-    private void setLikedStatusForUser(List<ReviewDto> reviewDtos, List<Review> reviews, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Пользователь", username));
+    private void setLikedStatusForUser(List<ReviewDto> reviewDtos, Long userId) {
+        List<Long> reviewIds = reviewDtos.stream()
+                .map(ReviewDto::getId)
+                .collect(Collectors.toList());
 
-        for (int i = 0; i < reviews.size(); i++) {
-            Review review = reviews.get(i);
-            ReviewDto reviewDto = reviewDtos.get(i);
-
-            boolean isLiked = review.getLikes().stream()
-                    .anyMatch(like -> like.getUser().getId().equals(user.getId()));
-            reviewDto.setLiked(isLiked);
+        Set<Long> likedReviewIds = likeRepository.findLikedReviewIds(userId, reviewIds);
+        for (ReviewDto reviewDto : reviewDtos) {
+            reviewDto.setLiked(likedReviewIds.contains(reviewDto.getId()));
         }
     }
 
-    private void setCommentsForReviews(List<ReviewDto> reviewDtos, Map<Long, List<CommentDto>> commentsByReviewId) {
+    // под каждой рецензией показываем только последние COMMENTS_PREVIEW комментариев
+    private void setCommentsForReviews(List<ReviewDto> reviewDtos) {
+        List<Long> reviewIds = reviewDtos.stream()
+                .map(ReviewDto::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<CommentDto>> commentsByReviewId = commentRepository
+                .findLatestViewsByReviewIds(reviewIds, COMMENTS_PREVIEW).stream()
+                .collect(Collectors.groupingBy(
+                        CommentView::getReviewId,
+                        Collectors.mapping(commentMapper::toDto, Collectors.toList())));
+
+        Map<Long, Long> countsByReviewId = commentRepository.countByReviewIds(reviewIds).stream()
+                .collect(Collectors.toMap(CommentCountView::getReviewId, CommentCountView::getCount));
+
         for (ReviewDto reviewDto : reviewDtos) {
-            List<CommentDto> comments = commentsByReviewId.get(reviewDto.getId());
-            if (comments != null) {
-                reviewDto.setComments(comments);
+            List<CommentDto> comments = commentsByReviewId.getOrDefault(reviewDto.getId(), new ArrayList<>());
+            long total = countsByReviewId.getOrDefault(reviewDto.getId(), 0L);
+            reviewDto.setComments(comments);
+            reviewDto.setCommentsCount(total);
+            if (total > comments.size()) {
+                reviewDto.setOlderCommentsCursor(cursorOf(comments.get(0)));
             }
         }
     }
 
+    private void checkLength(String text) {
+        if (text.length() > ConstraintViolations.MAX_TEXT_LENGTH) {
+            throw new BusinessException("Текст рецензии не должен превышать "
+                    + ConstraintViolations.MAX_TEXT_LENGTH + " символов");
+        }
+    }
+
+    private String cursorOf(CommentDto comment) {
+        return KeysetCursor.encode(comment.getCreatedAt(), comment.getId());
+    }
+
+    // возвращает id книги для редиректа
     @Transactional
-    public void deleteReview(Long reviewId, String username) {
+    public Long updateReview(Long reviewId, UserPrincipal currentUser, String text) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("Рецензия", reviewId));
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Пользователь", username));
+        // id автора доступен у прокси без загрузки пользователя
+        if (!review.getUser().getId().equals(currentUser.getId())) {
+            throw new BusinessException("У вас нет прав для редактирования этой рецензии");
+        }
+        checkLength(text);
+
+        review.setText(text);
+        review.setUpdatedAt(LocalDateTime.now());
+        Long bookId = review.getBook().getId();
+        bookRepository.touchActivity(bookId, Instant.now());
+        return bookId;
+    }
+
+    @Transactional
+    public void deleteReview(Long reviewId, UserPrincipal currentUser) {
+        Long authorId = reviewRepository.findAuthorIdById(reviewId)
+                .orElseThrow(() -> new ResourceNotFoundException("Рецензия", reviewId));
 
-        boolean isAuthor = review.getUser().getId().equals(user.getId());
-        boolean isAdmin = user.getRole().equals("ROLE_ADMIN");
+        boolean isAuthor = authorId.equals(currentUser.getId());
 
-        if (!isAuthor && !isAdmin) {
+        if (!isAuthor && !currentUser.isAdmin()) {
             throw new BusinessException("У вас нет прав для удаления этой рецензии");
         }
 
-        reviewRepository.delete(review);
+        bookRepository.touchActivityByReviewId(reviewId, Instant.now());
+        // пакетное удаление вместо загрузки коллекций для orphanRemoval
+        likeRepository.deleteByReviewId(reviewId);
+        commentRepository.deleteByReviewId(reviewId);
+        reviewRepository.deleteByIdReturningCount(reviewId);
     }
 
 }
\ No newline at end of file
@@ -32,7 +32,8 @@ document.addEventListener('DOMContentLoaded', function() {
     // === УЛУЧШЕННЫЙ КОД ДЛЯ СОХРАНЕНИЯ ПОЗИЦИИ ===
 
     // Сохраняем позицию прокрутки и ID элемента перед отправкой формы
-    document.querySelectorAll('form').forEach(form => {
+    // (лайки, комментарии и импорт отправляются без перезагрузки, см. ниже)
+    document.querySelectorAll('form:not(.like-form):not(.comment-form):not(#import-form)').forEach(form => {
         form.addEventListener('submit', function() {
             // Сохраняем текущую позицию прокрутки
             const currentPosition = window.pageYOffset || document.documentElement.scrollTop;
@@ -91,6 +92,265 @@ document.addEventListener('DOMContentLoaded', function() {
         }, 150);
     }
 
+    // === ЛАЙКИ И КОММЕНТАРИИ БЕЗ ПЕРЕЗАГРУЗКИ ===
+    // Делегирование на document: формы из подгруженных фрагментов тоже обрабатываются.
+    // Повторная обычная отправка — только если сервер отклонил запрос до обработки (вход, CSRF):
+    // иначе лайк снялся бы вторым переключением, а комментарий задвоился.
+    document.addEventListener('submit', function(event) {
+        const form = event.target;
+        if (form.matches('.like-form')) {
+            event.preventDefault();
+            toggleLike(form);
+        } else if (form.matches('.comment-form')) {
+            event.preventDefault();
+            addComment(form);
+        }
+    });
+
+    // JSON API возвращает только новое число лайков
+    function toggleLike(form) {
+        const button = form.querySelector('button');
+        button.disabled = true;
+        fetch(form.dataset.apiUrl, {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/json', 'Accept': 'application/json' },
+            credentials: 'same-origin'
+        })
+            .then(response => {
+                if (!response.ok) {
+                    throw failedResponse(response);
+                }
+                return response.json();
+            })
+            .then(result => {
+                form.querySelector('.likes-count').textContent = result.likes;
+                button.disabled = false;
+            })
+            .catch(error => recoverForm(form, button, error, 'Не удалось поставить лайк'));
+    }
+
+    // сервер отдаёт отрендеренный фрагмент одного комментария
+    function addComment(form) {
+        const button = form.querySelector('button');
+        button.disabled = true;
+        fetch(form.action, {
+            method: 'POST',
+            body: new URLSearchParams(new FormData(form)),
+            headers: { 'X-Requested-With': 'XMLHttpRequest' },
+            credentials: 'same-origin'
+        })
+            .then(response => {
+                // неавторизованный запрос Spring Security перенаправляет на страницу входа
+                if (!response.ok || response.redirected) {
+                    throw failedResponse(response);
+                }
+                return response.text();
+            })
+            .then(html => {
+                const section = form.closest('.comments-section');
+                section.querySelector('.comments-list').insertAdjacentHTML('beforeend', html);
+                const counter = section.querySelector('.comments-count');
+                counter.textContent = parseInt(counter.textContent, 10) + 1;
+                const empty = section.querySelector('.no-comments');
+                if (empty) {
+                    empty.remove();
+                }
+                form.reset();
+                button.disabled = false;
+                clearFormError(form);
+            })
+            .catch(error => recoverForm(form, button, error, 'Не удалось отправить комментарий'));
+    }
+
+    function failedResponse(response) {
+        const error = new Error('HTTP ' + response.status);
+        error.status = response.redirected ? 401 : response.status;
+        return error;
+    }
+
+    function recoverForm(form, button, error, message) {
+        if (error.status === 401 || error.status === 403) {
+            // ничего не записано: обычная отправка приведёт на страницу входа
+            form.submit();
+        } else if (error.status) {
+            button.disabled = false;
+            showFormError(form, message);
+        } else {
+            // ответ не получен, но запрос мог выполниться: показываем фактическое состояние
+            window.location.reload();
+        }
+    }
+
+    // без класса alert: такие блоки скрываются автоматически через 5 секунд
+    function showFormError(form, message) {
+        let error = form.querySelector('.form-error');
+        if (!error) {
+            error = document.createElement('div');
+            error.className = 'form-error text-danger small mt-1';
+            form.appendChild(error);
+        }
+        error.textContent = message;
+    }
+
+    function clearFormError(form) {
+        const error = form.querySelector('.form-error');
+        if (error) {
+            error.remove();
+        }
+    }
+
+    // === ЖИВЫЕ ОБНОВЛЕНИЯ СТРАНИЦЫ КНИГИ (SSE) ===
+    // Сервер раз в секунду присылает пачку: последние счётчики лайков, новые комментарии и рецензии.
+    const liveSection = document.querySelector('[data-events-url]');
+    if (liveSection && window.EventSource) {
+        const source = new EventSource(liveSection.dataset.eventsUrl);
+        source.addEventListener('update', event => applyLiveUpdate(JSON.parse(event.data)));
+        window.addEventListener('pagehide', () => source.close());
+    }
+
+    function applyLiveUpdate(update) {
+        Object.entries(update.likes || {}).forEach(([reviewId, likes]) => {
+            const counter = document.querySelector('#review-' + reviewId + ' .likes-count');
+            if (counter) {
+                counter.textContent = likes;
+            }
+        });
+
+        Object.entries(update.comments || {}).forEach(([reviewId, comments]) => {
+            const section = document.querySelector('#review-' + reviewId + ' .comments-section');
+            if (!section) {
+                return;
+            }
+            comments.forEach(comment => {
+                // свой комментарий уже вставлен ответом на отправку формы
+                if (section.querySelector('[data-comment-id="' + comment.id + '"]')) {
+                    return;
+                }
+                section.querySelector('.comments-list').appendChild(renderLiveComment(comment));
+                const counter = section.querySelector('.comments-count');
+                counter.textContent = parseInt(counter.textContent, 10) + 1;
+                const empty = section.querySelector('.no-comments');
+                if (empty) {
+                    empty.remove();
+                }
+            });
+        });
+
+        // карточку рецензии целиком не строим: предлагаем обновить страницу
+        const newReviews = (update.reviews || []).filter(review => !document.getElementById('review-' + review.id));
+        const notice = document.getElementById('new-reviews-notice');
+        if (newReviews.length > 0 && notice) {
+            const counter = notice.querySelector('.new-reviews-count');
+            counter.textContent = parseInt(counter.textContent, 10) + newReviews.length;
+            notice.classList.remove('d-none');
+        }
+    }
+
+    // упрощённая разметка commentItem без кнопок удаления; текст только через textContent
+    function renderLiveComment(comment) {
+        const item = document.createElement('div');
+        item.className = 'comment';
+        item.dataset.commentId = comment.id;
+
+        const header = document.createElement('div');
+        header.className = 'mb-2';
+        const author = document.createElement('strong');
+        author.className = 'text-primary';
+        author.textContent = comment.author || 'Аноним';
+        const time = document.createElement('small');
+        time.className = 'text-muted ms-2';
+        time.textContent = comment.createdAt ? new Date(comment.createdAt).toLocaleString('ru-RU', {
+            day: '2-digit', month: '2-digit', year: 'numeric', hour: '2-digit', minute: '2-digit'
+        }) : '';
+        header.append(author, time);
+
+        const text = document.createElement('p');
+        text.className = 'mb-1';
+        text.textContent = comment.text;
+
+        item.append(header, text);
+        return item;
+    }
+
+    // === ИМПОРТ КАТАЛОГА (страница администратора) ===
+    // файл уходит телом запроса; ответ — NDJSON с нарастающими счётчиками, читаем его по мере прихода
+    const importForm = document.getElementById('import-form');
+    if (importForm) {
+        importForm.addEventListener('submit', event => {
+            event.preventDefault();
+            importCatalog(importForm);
+        });
+    }
+
+    function importCatalog(form) {
+        const file = form.querySelector('input[type="file"]').files[0];
+        const progress = document.getElementById('import-progress');
+        const status = progress.querySelector('.import-status');
+        const button = form.querySelector('button[type="submit"]');
+        if (!file) {
+            return;
+        }
+
+        progress.classList.remove('d-none');
+        progress.querySelector('.import-errors').replaceChildren();
+        status.textContent = 'Загрузка…';
+        button.disabled = true;
+
+        fetch(form.dataset.importUrl, {
+            method: 'POST',
+            headers: {
+                'Content-Type': file.name.toLowerCase().endsWith('.csv') ? 'text/csv' : 'application/x-ndjson',
+                [form.dataset.csrfHeader]: form.dataset.csrfToken
+            },
+            body: file
+        })
+            .then(response => {
+                if (!response.ok) {
+                    throw new Error('HTTP ' + response.status);
+                }
+                return readLines(response.body.getReader(), line => showImportProgress(progress, JSON.parse(line)));
+            })
+            .catch(error => {
+                status.textContent = 'Импорт прерван: ' + error.message;
+            })
+            .finally(() => {
+                button.disabled = false;
+            });
+    }
+
+    async function readLines(reader, onLine) {
+        const decoder = new TextDecoder();
+        let buffer = '';
+        for (;;) {
+            const { done, value } = await reader.read();
+            buffer += decoder.decode(value || new Uint8Array(), { stream: !done });
+            let newline;
+            while ((newline = buffer.indexOf('\n')) >= 0) {
+                const line = buffer.slice(0, newline).trim();
+                buffer = buffer.slice(newline + 1);
+                if (line) {
+                    onLine(line);
+                }
+            }
+            if (done) {
+                return;
+            }
+        }
+    }
+
+    function showImportProgress(progress, report) {
+        ['rows', 'imported', 'duplicates', 'failed'].forEach(name => {
+            progress.querySelector('.import-' + name).textContent = report[name];
+        });
+        progress.querySelector('.import-status').textContent = report.finished ? 'Импорт завершён' : 'Импорт…';
+        const errors = progress.querySelector('.import-errors');
+        (report.errors || []).forEach(error => {
+            const item = document.createElement('li');
+            item.textContent = 'Строка ' + error.line + ': ' + error.message;
+            errors.appendChild(item);
+        });
+    }
+
     // Анимация кнопок (уже есть у тебя)
     document.querySelectorAll('.action-btn').forEach(btn => {
         btn.addEventListener('click', function(e) {
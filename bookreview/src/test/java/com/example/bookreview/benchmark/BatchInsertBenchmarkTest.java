@@ -0,0 +1,154 @@
+package com.example.bookreview.benchmark;
+
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.entity.Like;
+import com.example.bookreview.entity.Review;
+import com.example.bookreview.entity.User;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.LikeRepository;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Вставка 100k рецензий и 100k лайков через JPA: по одной строке за обращение к БД
+ * (как было с IDENTITY) и пакетами hibernate.jdbc.batch_size.
+ * Запуск: gradle benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.sql.init.mode=never",
+        "bookreview.likes.reconcile-on-startup=false",
+        "bookreview.slow-query.enabled=false"
+})
+class BatchInsertBenchmarkTest {
+
+    private static final int BOOKS = 1_000;
+    private static final int USERS = 100;
+    private static final int ROWS = BOOKS * USERS;
+    private static final int WARMUP_ROWS = 10_000;
+    private static final int FLUSH_EVERY = 1_000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    private List<Long> bookIds;
+    private List<Long> userIds;
+
+    @BeforeEach
+    void seed() {
+        bookIds = new ArrayList<>(BOOKS);
+        for (int b = 0; b < BOOKS; b++) {
+            Book book = new Book();
+            book.setTitle("Книга " + b);
+            book.setAuthor("Автор " + (b % 50));
+            book.setIsActive(true);
+            bookIds.add(bookRepository.save(book).getId());
+        }
+        userIds = new ArrayList<>(USERS);
+        for (int u = 0; u < USERS; u++) {
+            User user = new User();
+            user.setUsername("bench" + u);
+            user.setEmail("bench" + u + "@example.com");
+            user.setPassword("secret");
+            user.setRole("ROLE_USER");
+            userIds.add(userRepository.save(user).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        deleteReviewsAndLikes();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void batchedInsertsBeatRowByRow() {
+        insert(WARMUP_ROWS, 1);
+        deleteReviewsAndLikes();
+        insert(WARMUP_ROWS, 50);
+        deleteReviewsAndLikes();
+
+        long rowByRow = insert(ROWS, 1);
+        assertEquals(ROWS, reviewRepository.count());
+        assertEquals(ROWS, likeRepository.count());
+        deleteReviewsAndLikes();
+
+        long batched = insert(ROWS, 50);
+        assertEquals(ROWS, reviewRepository.count());
+        assertEquals(ROWS, likeRepository.count());
+
+        System.out.printf("%-12s %10s %14s%n", "batch size", "ms", "rows/s");
+        System.out.printf("%-12d %10d %14d%n", 1, rowByRow / 1_000_000, 2L * ROWS * 1_000_000_000 / rowByRow);
+        System.out.printf("%-12d %10d %14d%n", 50, batched / 1_000_000, 2L * ROWS * 1_000_000_000 / batched);
+
+        assertTrue(batched < rowByRow, "batched inserts should be faster than row-by-row");
+    }
+
+    // рецензия (book, user) уникальна; лайк ставит следующий пользователь, не автор
+    private long insert(int rows, int batchSize) {
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < rows; i++) {
+                int userIndex = i % USERS;
+
+                Review review = new Review();
+                review.setBook(entityManager.getReference(Book.class, bookIds.get(i / USERS)));
+                review.setUser(entityManager.getReference(User.class, userIds.get(userIndex)));
+                review.setText("Рецензия " + i);
+                review.setCreatedAt(now);
+                review.setLikesCount(1);
+                entityManager.persist(review);
+
+                Like like = new Like();
+                like.setReview(review);
+                like.setUser(entityManager.getReference(User.class, userIds.get((userIndex + 1) % USERS)));
+                entityManager.persist(like);
+
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        return System.nanoTime() - started;
+    }
+
+    private void deleteReviewsAndLikes() {
+        likeRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.bookreview.benchmark;
+
+import com.example.bookreview.config.DatabasePlatform;
+import com.example.bookreview.config.IdSequenceMigration;
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнение OFFSET- и keyset-пагинации каталога на разной глубине.
+ * Запуск: gradle benchmark
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@Import({DatabasePlatform.class, IdSequenceMigration.class})
+class CatalogPaginationBenchmarkTest {
+
+    private static final int BOOKS = 100_000;
+    private static final int PAGE_SIZE = 9;
+    private static final int[] DEPTHS = {0, 100, 1_000, 5_000, 10_000};
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        List<Object[]> rows = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            rows.add(new Object[]{String.format("Книга %06d", i), "Автор " + (i % 500)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO book (title, author, is_active) VALUES (?, ?, TRUE)", rows);
+    }
+
+    @Test
+    void keysetLatencyStaysFlatAcrossPageDepth() {
+        Sort sort = Sort.by("title").ascending().and(Sort.by("id").ascending());
+        long keysetFirst = 0;
+        long keysetDeepest = 0;
+
+        System.out.printf("%-8s %14s %14s%n", "page", "offset, us", "keyset, us");
+        for (int depth : DEPTHS) {
+            Book anchor = depth == 0 ? null
+                    : bookRepository.findByIsActiveTrue(PageRequest.of(depth * PAGE_SIZE - 1, 1, sort)).getContent().get(0);
+
+            long offset = measure(() -> bookRepository.findByIsActiveTrue(PageRequest.of(depth, PAGE_SIZE, sort)).getContent());
+            long keyset = measure(() -> anchor == null
+                    ? bookRepository.findActiveFirstPage(Limit.of(PAGE_SIZE))
+                    : bookRepository.findActiveAfter(anchor.getTitle(), anchor.getId(), Limit.of(PAGE_SIZE)));
+
+            List<Book> viaOffset = bookRepository.findByIsActiveTrue(PageRequest.of(depth, PAGE_SIZE, sort)).getContent();
+            List<Book> viaKeyset = anchor == null
+                    ? bookRepository.findActiveFirstPage(Limit.of(PAGE_SIZE))
+                    : bookRepository.findActiveAfter(anchor.getTitle(), anchor.getId(), Limit.of(PAGE_SIZE));
+            assertEquals(viaOffset.stream().map(Book::getId).toList(), viaKeyset.stream().map(Book::getId).toList());
+
+            System.out.printf("%-8d %14d %14d%n", depth, offset / 1000, keyset / 1000);
+            if (depth == 0) {
+                keysetFirst = keyset;
+            }
+            keysetDeepest = keyset;
+        }
+
+        // глубокая страница не должна заметно отличаться от первой
+        assertTrue(keysetDeepest < keysetFirst * 5 + 2_000_000,
+                "keyset latency grows with depth: " + keysetFirst + "ns -> " + keysetDeepest + "ns");
+    }
+
+    private long measure(Supplier<List<Book>> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
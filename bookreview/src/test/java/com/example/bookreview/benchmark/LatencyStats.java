@@ -0,0 +1,34 @@
+package com.example.bookreview.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Перцентили задержек одной серии запросов
+ */
+record LatencyStats(int count, double throughput, long p50Micros, long p99Micros, long p999Micros, long maxMicros) {
+
+    static LatencyStats of(long[] latencyNanos, long elapsedNanos) {
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+        return new LatencyStats(
+                sorted.length,
+                sorted.length / (elapsedNanos / 1_000_000_000.0),
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.99),
+                percentile(sorted, 0.999),
+                sorted[sorted.length - 1] / 1000);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1000;
+    }
+
+    static String header() {
+        return String.format("%-28s %8s %10s %10s %10s %10s", "scenario", "req/s", "p50, us", "p99, us", "p999, us", "max, us");
+    }
+
+    String format(String scenario) {
+        return String.format("%-28s %8.0f %10d %10d %10d %10d", scenario, throughput, p50Micros, p99Micros, p999Micros, maxMicros);
+    }
+}
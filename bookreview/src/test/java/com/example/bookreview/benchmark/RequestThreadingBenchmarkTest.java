@@ -0,0 +1,140 @@
+package com.example.bookreview.benchmark;
+
+import com.example.bookreview.BookreviewApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Пропускная способность и p99 для /books и /books/{id}: потоки платформы против виртуальных.
+ * Запуск: gradle benchmark -PjavaVersion=21 (на JDK 17 измеряется только режим платформы)
+ */
+@Tag("benchmark")
+class RequestThreadingBenchmarkTest {
+
+    private static final int BOOKS = 200;
+    private static final int REVIEWS_PER_BOOK = 30;
+    private static final int CONCURRENCY = 400;
+    private static final int WARMUP_REQUESTS = 1_000;
+    private static final int REQUESTS = 4_000;
+    private static final int POOL_SIZE = 10;
+
+    @Test
+    void compareRequestThreadingModes() throws Exception {
+        Map<String, LatencyStats> results = new LinkedHashMap<>();
+        measureMode("platform", false, results);
+        if (Runtime.version().feature() >= 21) {
+            measureMode("virtual", true, results);
+        } else {
+            System.out.println("JDK " + Runtime.version().feature() + ": virtual-thread mode skipped, run with -PjavaVersion=21");
+        }
+
+        System.out.println(LatencyStats.header());
+        results.forEach((scenario, stats) -> System.out.println(stats.format(scenario)));
+    }
+
+    private void measureMode(String mode, boolean virtual, Map<String, LatencyStats> results) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookreviewApplication.class)
+                .profiles(virtual ? "virtual-threads" : "default")
+                .properties(
+                        "server.port=0",
+                        "spring.sql.init.mode=never",
+                        "spring.jpa.show-sql=false",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        // одинаковый пул в обоих режимах, чтобы сравнивать только модель потоков
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "bookreview.security.bcrypt.cost=4",
+                        "bookreview.likes.reconcile-on-startup=false")
+                .run()) {
+
+            List<Long> bookIds = seed(context.getBean(JdbcTemplate.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port;
+            IntFunction<String> catalog = i -> "/books";
+            IntFunction<String> bookPage = i -> "/books/" + bookIds.get(i % BOOKS);
+
+            run(base, catalog, WARMUP_REQUESTS);
+            results.put(mode + " GET /books", run(base, catalog, REQUESTS));
+
+            run(base, bookPage, WARMUP_REQUESTS);
+            results.put(mode + " GET /books/{id}", run(base, bookPage, REQUESTS));
+        }
+    }
+
+    private LatencyStats run(String base, IntFunction<String> path, int requests) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        long[] latencies = new long[requests];
+        AtomicInteger cursor = new AtomicInteger();
+
+        long start = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int c = 0; c < CONCURRENCY; c++) {
+            workers.add(clients.submit(() -> {
+                for (int i = cursor.getAndIncrement(); i < requests; i = cursor.getAndIncrement()) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + path.apply(i))).GET().build();
+                    long sent = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    latencies[i] = System.nanoTime() - sent;
+                    assertEquals(200, response.statusCode());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        clients.shutdown();
+
+        return LatencyStats.of(latencies, elapsed);
+    }
+
+    private List<Long> seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> users = new ArrayList<>();
+        for (int u = 0; u < REVIEWS_PER_BOOK; u++) {
+            users.add(new Object[]{"reader" + u, "reader" + u + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, email, password, role) VALUES (?, ?, 'x', 'ROLE_USER')", users);
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+
+        List<Object[]> books = new ArrayList<>();
+        for (int b = 0; b < BOOKS; b++) {
+            books.add(new Object[]{String.format("Книга %04d", b), "Автор " + (b % 20)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO book (title, author, is_active) VALUES (?, ?, TRUE)", books);
+        List<Long> bookIds = jdbcTemplate.queryForList("SELECT id FROM book ORDER BY id", Long.class);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> reviews = new ArrayList<>();
+        for (Long bookId : bookIds) {
+            for (Long userId : userIds) {
+                reviews.add(new Object[]{bookId, userId, "Рецензия", now});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO review (book_id, user_id, text, created_at, likes_count) VALUES (?, ?, ?, ?, 0)", reviews);
+        return bookIds;
+    }
+}
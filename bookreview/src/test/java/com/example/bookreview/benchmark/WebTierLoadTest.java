@@ -0,0 +1,309 @@
+package com.example.bookreview.benchmark;
+
+import com.example.bookreview.datagen.DatasetGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Смешанная нагрузка на веб-слой по засеянной встроенной базе: каталог, поиск, книга, лайк, комментарий, вход.
+ * Печатает пропускную способность и p50/p99/p999 по сценариям и падает, если p99 выходит за бюджет
+ * из loadtest-budgets.properties. Запуск: gradle loadTest (отдельно, в gradle check не входит)
+ */
+@Tag("loadtest")
+@ActiveProfiles("datagen")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "bookreview.datagen.exit-when-done=false",
+        "bookreview.datagen.users=2000",
+        "bookreview.datagen.books=2000",
+        "bookreview.datagen.reviews=20000",
+        "bookreview.datagen.likes=60000",
+        "bookreview.security.bcrypt.cost=10",
+        "spring.jpa.show-sql=false"
+})
+class WebTierLoadTest {
+
+    private static final int VIRTUAL_USERS = Integer.getInteger("loadtest.users", 16);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30));
+    private static final double MAX_ERROR_RATE = 0.01;
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    enum Scenario {
+        CATALOG(36), SEARCH(15), BOOK(30), LIKE(10), COMMENT(8), LOGIN(1);
+
+        private final int weight;
+
+        Scenario(int weight) {
+            this.weight = weight;
+        }
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long[] bookIds;
+    private long[] reviewIds;
+
+    @Test
+    void mixedTrafficStaysWithinLatencyBudgets() throws Exception {
+        bookIds = ids("SELECT id FROM book ORDER BY id");
+        reviewIds = ids("SELECT id FROM review ORDER BY id");
+
+        // входим по очереди: одновременный вход всех пользователей упирается в пул хеширования паролей
+        List<Worker> workers = new ArrayList<>();
+        for (int u = 0; u < VIRTUAL_USERS; u++) {
+            workers.add(new Worker(u, new Random(u)));
+        }
+
+        drive(workers, WARMUP);
+        workers.forEach(Worker::reset);
+        long started = System.nanoTime();
+        drive(workers, MEASUREMENT);
+        long elapsed = System.nanoTime() - started;
+
+        Map<String, Long> budgets = budgets();
+        List<String> violations = new ArrayList<>();
+        System.out.println(LatencyStats.header() + String.format(" %8s %10s", "errors", "budget"));
+        for (Scenario scenario : Scenario.values()) {
+            Samples samples = new Samples();
+            long errors = 0;
+            for (Worker worker : workers) {
+                samples.addAll(worker.samples.get(scenario));
+                errors += worker.errors.get(scenario)[0];
+            }
+            if (samples.size == 0) {
+                continue;
+            }
+            LatencyStats stats = LatencyStats.of(samples.toArray(), elapsed);
+            long budgetMillis = budgets.get(scenario.key());
+            System.out.println(stats.format(scenario.key()) + String.format(" %8d %8d ms", errors, budgetMillis));
+
+            if (stats.p99Micros() > budgetMillis * 1000) {
+                violations.add(scenario.key() + ": p99 " + stats.p99Micros() / 1000 + " ms > " + budgetMillis + " ms");
+            }
+            if (errors > (samples.size + errors) * MAX_ERROR_RATE) {
+                violations.add(scenario.key() + ": " + errors + " failed requests");
+            }
+        }
+
+        assertTrue(violations.isEmpty(), "Latency budget regressions: " + violations);
+    }
+
+    private void drive(List<Worker> workers, Duration duration) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Worker worker : workers) {
+            futures.add(executor.submit(() -> {
+                worker.runUntil(deadline);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+
+    // виртуальный пользователь: своя сессия, свой CSRF-токен
+    private class Worker {
+        private final String username;
+        private final Random random;
+        private final HttpClient client;
+        private final Map<Scenario, Samples> samples = new EnumMap<>(Scenario.class);
+        private final Map<Scenario, long[]> errors = new EnumMap<>(Scenario.class);
+        private final String csrf;
+
+        Worker(int index, Random random) throws Exception {
+            this.username = String.format("%suser%07d", DatasetGenerator.USERNAME_PREFIX, index);
+            this.random = random;
+            this.client = newClient();
+            this.csrf = login(client, username);
+            if (csrf == null) {
+                throw new IllegalStateException("Login failed for " + username);
+            }
+            reset();
+        }
+
+        void reset() {
+            for (Scenario scenario : Scenario.values()) {
+                samples.put(scenario, new Samples());
+                errors.put(scenario, new long[1]);
+            }
+        }
+
+        void runUntil(long deadline) throws Exception {
+            while (System.nanoTime() < deadline) {
+                Scenario scenario = pick();
+                long start = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = execute(scenario);
+                } catch (IOException e) {
+                    ok = false;
+                }
+                long latency = System.nanoTime() - start;
+                if (ok) {
+                    samples.get(scenario).add(latency);
+                } else {
+                    errors.get(scenario)[0]++;
+                }
+            }
+        }
+
+        private boolean execute(Scenario scenario) throws Exception {
+            return switch (scenario) {
+                case CATALOG -> get("/books?page=" + random.nextInt(20));
+                case SEARCH -> get("/books?search=" + encode("Книга 00" + random.nextInt(100)));
+                case BOOK -> get("/books/" + bookIds[random.nextInt(bookIds.length)]);
+                case LIKE -> post("/likes/review/" + reviewIds[random.nextInt(reviewIds.length)], "");
+                case COMMENT -> post("/comments/add",
+                        "reviewId=" + reviewIds[random.nextInt(reviewIds.length)] + "&text=" + encode("Нагрузочный комментарий"));
+                case LOGIN -> login(newClient(), username) != null;
+            };
+        }
+
+        private boolean get(String path) throws Exception {
+            return client.send(request(path).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        }
+
+        private boolean post(String path, String form) throws Exception {
+            String body = "_csrf=" + encode(csrf) + (form.isEmpty() ? "" : "&" + form);
+            HttpResponse<Void> response = client.send(request(path)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            String location = response.headers().firstValue("Location").orElse("");
+            return response.statusCode() == 302 && !location.contains("error");
+        }
+
+        private Scenario pick() {
+            int total = Arrays.stream(Scenario.values()).mapToInt(s -> s.weight).sum();
+            int roll = random.nextInt(total);
+            for (Scenario scenario : Scenario.values()) {
+                roll -= scenario.weight;
+                if (roll < 0) {
+                    return scenario;
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+
+    // вход формой: токен со страницы логина, затем POST /perform_login; возвращает токен новой сессии
+    private String login(HttpClient client, String username) throws Exception {
+        String loginPage = client.send(request("/login").GET().build(), HttpResponse.BodyHandlers.ofString()).body();
+        String body = "username=" + encode(username) + "&password=" + encode(DatasetGenerator.PASSWORD)
+                + "&_csrf=" + encode(csrfOf(loginPage));
+        HttpResponse<Void> response = client.send(request("/perform_login")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 302 || response.headers().firstValue("Location").orElse("").contains("error")) {
+            return null;
+        }
+        String page = client.send(request("/books/" + bookIds[0]).GET().build(), HttpResponse.BodyHandlers.ofString()).body();
+        return csrfOf(page);
+    }
+
+    private HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private static String csrfOf(String html) {
+        Matcher matcher = CSRF.matcher(html);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No CSRF token on page");
+        }
+        return matcher.group(1);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private long[] ids(String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static Map<String, Long> budgets() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = WebTierLoadTest.class.getResourceAsStream("/loadtest-budgets.properties")) {
+            properties.load(in);
+        }
+        Map<String, Long> budgets = new HashMap<>();
+        for (Scenario scenario : Scenario.values()) {
+            String override = System.getProperty("loadtest.budget." + scenario.key());
+            budgets.put(scenario.key(), Long.parseLong(override != null ? override : properties.getProperty(scenario.key())));
+        }
+        return budgets;
+    }
+
+    private static class Samples {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
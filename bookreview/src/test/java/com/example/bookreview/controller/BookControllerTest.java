@@ -1,8 +1,12 @@
 package com.example.bookreview.controller;
 
 import com.example.bookreview.dto.BookCreateDto;
+import com.example.bookreview.dto.BookCursorPage;
 import com.example.bookreview.dto.BookDto;
 import com.example.bookreview.dto.ReviewDto;
+import com.example.bookreview.dto.ReviewPage;
+import com.example.bookreview.repository.projection.BookVersion;
+import com.example.bookreview.security.UserPrincipal;
 import com.example.bookreview.service.BookService;
 import com.example.bookreview.service.ReviewService;
 import org.junit.jupiter.api.Test;
@@ -11,10 +15,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -22,6 +29,7 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -37,6 +45,8 @@ class BookControllerTest {
     @MockitoBean
     private ReviewService reviewService;
 
+    private final UserPrincipal reader = new UserPrincipal(7L, "reader", "secret", "ROLE_USER");
+
     private BookDto createSampleBookDto() {
         return BookDto.builder()
                 .id(1L)
@@ -145,15 +155,15 @@ class BookControllerTest {
     }
 
     @Test
-    @WithMockUser
     void viewBook_WithAuthenticatedUser_ShouldReturnBookView() throws Exception {
         BookDto bookDto = createSampleBookDto();
         List<ReviewDto> reviews = Arrays.asList(createSampleReviewDto());
 
         when(bookService.getBookById(1L)).thenReturn(bookDto);
-        when(reviewService.getReviewsForBook(eq(1L), anyString())).thenReturn(reviews);
+        when(reviewService.getReviewPage(eq(1L), anyLong(), isNull()))
+                .thenReturn(ReviewPage.builder().content(reviews).totalCount(1).build());
 
-        mockMvc.perform(get("/books/1"))
+        mockMvc.perform(get("/books/1").with(user(reader)))
                 .andExpect(status().isOk())
                 .andExpect(view().name("books/view"))
                 .andExpect(model().attributeExists("book"))
@@ -161,7 +171,7 @@ class BookControllerTest {
                 .andExpect(model().attributeExists("reviewCreateDto"));
 
         verify(bookService).getBookById(1L);
-        verify(reviewService).getReviewsForBook(1L, "user");
+        verify(reviewService).getReviewPage(1L, 7L, null);
     }
 
     @Test
@@ -171,7 +181,8 @@ class BookControllerTest {
         List<ReviewDto> reviews = Arrays.asList(createSampleReviewDto());
 
         when(bookService.getBookById(1L)).thenReturn(bookDto);
-        when(reviewService.getReviewsForBook(eq(1L), anyString())).thenReturn(reviews);
+        when(reviewService.getReviewPage(eq(1L), isNull(), isNull()))
+                .thenReturn(ReviewPage.builder().content(reviews).totalCount(1).build());
 
         mockMvc.perform(get("/books/1"))
                 .andExpect(status().isOk())
@@ -179,7 +190,66 @@ class BookControllerTest {
                 .andExpect(model().attributeExists("book"))
                 .andExpect(model().attributeExists("reviews"));
 
-        verify(reviewService).getReviewsForBook(1L, "user");
+        verify(reviewService).getReviewPage(1L, null, null);
+    }
+
+    @Test
+    void viewBook_WithMatchingETag_ShouldReturnNotModifiedWithoutLoadingReviews() throws Exception {
+        when(bookService.getBookVersion(1L)).thenReturn(new BookVersion(3, Instant.parse("2024-05-01T10:00:00Z")));
+        when(bookService.getBookById(1L)).thenReturn(createSampleBookDto());
+        when(reviewService.getReviewPage(eq(1L), anyLong(), isNull()))
+                .thenReturn(ReviewPage.builder().content(List.of()).totalCount(0).build());
+
+        // ETag привязан к сессии: в ней CSRF-токен, который попал в страницу
+        MockHttpSession session = new MockHttpSession();
+        String etag = mockMvc.perform(get("/books/1").with(user(reader)).session(session))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Wed, 01 May 2024 10:00:00 GMT"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(reviewService);
+
+        mockMvc.perform(get("/books/1").with(user(reader)).session(session).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verifyNoInteractions(reviewService);
+
+        // другой пользователь видит другую страницу (лайки, кнопки, CSRF-токен)
+        mockMvc.perform(get("/books/1").with(user(new UserPrincipal(8L, "other", "secret", "ROLE_USER")))
+                        .session(session).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/books/1").with(user(reader)).session(new MockHttpSession())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void viewBook_AfterVersionChange_ShouldRenderAgain() throws Exception {
+        when(bookService.getBookVersion(1L)).thenReturn(new BookVersion(3, Instant.parse("2024-05-01T10:00:00Z")));
+        when(bookService.getBookById(1L)).thenReturn(createSampleBookDto());
+        when(reviewService.getReviewPage(eq(1L), anyLong(), isNull()))
+                .thenReturn(ReviewPage.builder().content(List.of()).totalCount(0).build());
+
+        MockHttpSession session = new MockHttpSession();
+        String etag = mockMvc.perform(get("/books/1").with(user(reader)).session(session))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        when(bookService.getBookVersion(1L)).thenReturn(new BookVersion(4, Instant.parse("2024-05-01T10:05:00Z")));
+
+        mockMvc.perform(get("/books/1").with(user(reader)).session(session).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(view().name("books/view"));
+    }
+
+    @Test
+    @WithMockUser
+    void listBooks_WithUnchangedCatalog_ShouldReturnNotModified() throws Exception {
+        when(bookService.getCatalogLastModified()).thenReturn(Instant.parse("2024-05-01T10:00:00Z"));
+
+        mockMvc.perform(get("/books").header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 May 2024 10:00:00 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(bookService).getCatalogLastModified();
+        verifyNoMoreInteractions(bookService);
     }
 
     @Test
@@ -255,4 +325,39 @@ class BookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(model().attributeExists("successMessage"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    void listBooks_WithCursor_ShouldUseKeysetPagination() throws Exception {
+        BookCursorPage cursorPage = BookCursorPage.builder()
+                .content(Arrays.asList(createSampleBookDto()))
+                .nextCursor("next")
+                .prevCursor("prev")
+                .build();
+        when(bookService.getBooksByCursor("abc", null)).thenReturn(cursorPage);
+        when(bookService.getAllAuthors()).thenReturn(Arrays.asList("Author"));
+
+        mockMvc.perform(get("/books?after=abc"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("books/list"))
+                .andExpect(model().attribute("nextCursor", "next"))
+                .andExpect(model().attribute("prevCursor", "prev"))
+                .andExpect(model().attributeDoesNotExist("totalPages"));
+
+        verify(bookService, never()).getAllBooks(any(Pageable.class));
+    }
+
+    @Test
+    void loadMoreReviews_ShouldRenderReviewPageFragment() throws Exception {
+        ReviewDto review = createSampleReviewDto();
+        review.setComments(List.of());
+        when(reviewService.getReviewPage(1L, 7L, "cursor"))
+                .thenReturn(ReviewPage.builder().content(List.of(review)).nextCursor("next").build());
+
+        mockMvc.perform(get("/books/1/reviews").param("after", "cursor").with(user(reader)))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("nextReviewsCursor", "next"))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("review-1")))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("load-more")));
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.bookreview.controller.api;
+
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.entity.Review;
+import com.example.bookreview.entity.User;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.CommentRepository;
+import com.example.bookreview.repository.LikeRepository;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.sql.init.mode=never")
+@AutoConfigureMockMvc
+class ApiV1Test {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long bookId;
+    private Long reviewId;
+    private UserPrincipal reader;
+
+    @BeforeEach
+    void seed() {
+        Book book = new Book();
+        book.setTitle("Api Book");
+        book.setAuthor("Api Author");
+        book.setDescription("x".repeat(1500));
+        book.setIsActive(true);
+        bookId = bookRepository.save(book).getId();
+
+        User author = userRepository.save(newUser("author"));
+        reader = principal(userRepository.save(newUser("reader")));
+
+        Review review = new Review();
+        review.setBook(book);
+        review.setUser(author);
+        review.setText("Review");
+        review.setCreatedAt(LocalDateTime.now());
+        reviewId = reviewRepository.save(review).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        likeRepository.deleteAllInBatch();
+        commentRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void listBooks_ShouldReturnCompactItems() throws Exception {
+        mockMvc.perform(get("/api/v1/books"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items[0].title").value("Api Book"))
+                .andExpect(jsonPath("$.items[0].description").doesNotExist())
+                .andExpect(jsonPath("$.page").value(0));
+    }
+
+    @Test
+    void getBook_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/books/" + bookId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.author").value("Api Author"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/books/" + bookId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void listBooks_AfterChangeWithinSameSecond_ShouldNotReturnNotModified() throws Exception {
+        Instant second = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        jdbcTemplate.update("UPDATE book SET modified_at = ? WHERE id = ?", Timestamp.from(second.plusMillis(100)), bookId);
+        MockHttpServletResponse cached = mockMvc.perform(get("/api/v1/books"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        jdbcTemplate.update("UPDATE book SET modified_at = ? WHERE id = ?", Timestamp.from(second.plusMillis(600)), bookId);
+
+        mockMvc.perform(get("/api/v1/books")
+                        .header(HttpHeaders.IF_NONE_MATCH, cached.getHeader(HttpHeaders.ETAG))
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, cached.getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/books")
+                        .header(HttpHeaders.IF_NONE_MATCH, cached.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getBook_Missing_ShouldReturnJsonNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/books/" + (bookId + 100)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+
+    @Test
+    void reviewsCommentsAndLikes_ShouldRoundTrip() throws Exception {
+        mockMvc.perform(post("/api/v1/reviews/" + reviewId + "/comments").with(user(reader))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"text\":\"Nice\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.author").value("reader"));
+
+        mockMvc.perform(post("/api/v1/reviews/" + reviewId + "/like").with(user(reader))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.likes").value(1));
+
+        mockMvc.perform(get("/api/v1/books/" + bookId + "/reviews").with(user(reader)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].liked").value(true))
+                .andExpect(jsonPath("$.items[0].commentsCount").value(1))
+                .andExpect(jsonPath("$.items[0].comments[0].text").value("Nice"));
+    }
+
+    @Test
+    void addReview_ShouldValidateBody() throws Exception {
+        mockMvc.perform(post("/api/v1/books/" + bookId + "/reviews").with(user(reader))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"text\":\" \"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", startsWith("text")));
+
+        mockMvc.perform(post("/api/v1/books/" + bookId + "/reviews").with(user(reader))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"text\":\"Great\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.likes").value(0));
+    }
+
+    @Test
+    void writes_WithoutAuthentication_ShouldReturnUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/v1/reviews/" + reviewId + "/like").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // без application/json кросс-доменная форма не пройдёт: CSRF для /api/** отключён
+    @Test
+    void writes_WithoutJsonContentType_ShouldBeRejected() throws Exception {
+        mockMvc.perform(post("/api/v1/reviews/" + reviewId + "/like").with(user(reader))
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                .andExpect(status().isUnsupportedMediaType());
+        assertEquals(0, likeRepository.count());
+    }
+
+    // сжатие делает Tomcat, поэтому проверяем через настоящий порт
+    @Test
+    void getBook_ShouldBeGzipped() throws Exception {
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/books/" + bookId))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+    }
+
+    private UserPrincipal principal(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+
+    private User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setRole("ROLE_USER");
+        return user;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.bookreview.datagen;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("datagen")
+@SpringBootTest(properties = {
+        "bookreview.datagen.exit-when-done=false",
+        "bookreview.datagen.users=1000",
+        "bookreview.datagen.books=60",
+        "bookreview.datagen.reviews=3000",
+        "bookreview.datagen.likes=15000",
+        "bookreview.datagen.batch-size=500",
+        "bookreview.security.bcrypt.cost=4"
+})
+class DatasetGeneratorTest {
+
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generate_ShouldProduceConsistentSkewedAndReproducibleDataset() {
+        // первый прогон выполнен при старте контекста
+        assertEquals(1000, count("SELECT COUNT(*) FROM users"));
+        assertEquals(60, count("SELECT COUNT(*) FROM book"));
+        long reviews = count("SELECT COUNT(*) FROM review");
+        long likes = count("SELECT COUNT(*) FROM likes");
+        assertTrue(reviews > 2_900, "reviews: " + reviews);
+        assertTrue(likes > 12_000 && likes < 18_000, "likes: " + likes);
+
+        assertEquals(0, count("SELECT COUNT(*) FROM review r "
+                + "WHERE r.likes_count <> (SELECT COUNT(*) FROM likes l WHERE l.review_id = r.id)"));
+        assertEquals(0, count("SELECT COUNT(*) FROM likes l JOIN review r ON r.id = l.review_id WHERE l.user_id = r.user_id"));
+
+        List<Long> perBook = reviewsPerBook();
+        long hottest = perBook.stream().mapToLong(Long::longValue).max().orElseThrow();
+        assertTrue(hottest > 5 * reviews / 60, "hottest book: " + hottest);
+
+        List<Long> likesPerBook = likesPerBook();
+        clear();
+        datasetGenerator.generate();
+
+        assertEquals(perBook, reviewsPerBook());
+        assertEquals(likesPerBook, likesPerBook());
+    }
+
+    private List<Long> reviewsPerBook() {
+        return jdbcTemplate.queryForList(
+                "SELECT COUNT(r.id) FROM book b LEFT JOIN review r ON r.book_id = b.id GROUP BY b.title ORDER BY b.title",
+                Long.class);
+    }
+
+    private List<Long> likesPerBook() {
+        return jdbcTemplate.queryForList(
+                "SELECT COALESCE(SUM(r.likes_count), 0) FROM book b LEFT JOIN review r ON r.book_id = b.id "
+                        + "GROUP BY b.title ORDER BY b.title",
+                Long.class);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private void clear() {
+        jdbcTemplate.update("DELETE FROM likes");
+        jdbcTemplate.update("DELETE FROM review");
+        jdbcTemplate.update("DELETE FROM book");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.bookreview.datasource;
+
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.entity.User;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.security.UserPrincipal;
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ReplicaRoutingConfig целиком: primary и реплика — две H2 в памяти, open-in-view включён.
+ * Реплика получает копию схемы и данных primary; различие в названии книги показывает, откуда прочитана страница.
+ */
+@SpringBootTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.open-in-view=true",
+        "spring.datasource.url=jdbc:h2:mem:routing-config-primary;DB_CLOSE_DELAY=-1",
+        "bookreview.datasource.replicas[0].url=" + ReplicaRoutingConfigTest.REPLICA_URL,
+        "bookreview.likes.reconcile-on-startup=false"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingConfigTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-config-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private HikariDataSource primaryPool;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private Long bookId;
+    private User reader;
+
+    @BeforeEach
+    void seed() {
+        primary = new JdbcTemplate(primaryPool);
+        JdbcDataSource replicaDataSource = new JdbcDataSource();
+        replicaDataSource.setURL(REPLICA_URL);
+        replicaDataSource.setUser("sa");
+        replica = new JdbcTemplate(replicaDataSource);
+
+        Book book = new Book();
+        book.setTitle("Primary copy");
+        book.setAuthor("Author");
+        book.setIsActive(true);
+        bookId = bookRepository.save(book).getId();
+
+        reader = new User();
+        reader.setUsername("reader");
+        reader.setEmail("reader@example.com");
+        reader.setPassword("secret");
+        reader.setRole("ROLE_USER");
+        reader = userRepository.save(reader);
+
+        // «репликация»: снимок primary, в котором название книги отличается
+        replica.execute("DROP ALL OBJECTS");
+        primary.queryForList("SCRIPT", String.class).forEach(replica::execute);
+        replica.update("UPDATE book SET title = 'Replica copy' WHERE id = ?", bookId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void configuration_ShouldWrapOnlyTheRoutingDataSource() {
+        DataSource dataSource = context.getBean(DataSource.class);
+
+        assertSame(context.getBean("dataSource"), dataSource);
+        // журнал медленных запросов видит все запросы через основной бин, пулы за ним не обёрнуты повторно
+        assertInstanceOf(ProxyDataSource.class, dataSource);
+        assertInstanceOf(HikariDataSource.class, context.getBean("primaryPool"));
+        assertInstanceOf(ReplicaRoutingDataSource.class, context.getBean("replicaRoutingDataSource"));
+    }
+
+    @Test
+    void readOnlyPage_ShouldBeServedByReplica() throws Exception {
+        mockMvc.perform(get("/books/{id}", bookId))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Replica copy")))
+                .andExpect(content().string(not(containsString("Primary copy"))));
+    }
+
+    @Test
+    void write_ShouldGoToPrimary() throws Exception {
+        mockMvc.perform(post("/reviews/add")
+                        .with(user(new UserPrincipal(reader.getId(), "reader", "secret", "ROLE_USER"))).with(csrf())
+                        .param("bookId", bookId.toString())
+                        .param("text", "Written on primary"))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM review", Integer.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM review", Integer.class));
+    }
+
+    @Test
+    void readAfterWrite_ShouldBeServedByPrimaryForSameUser() throws Exception {
+        UserPrincipal principal = new UserPrincipal(reader.getId(), "reader", "secret", "ROLE_USER");
+        mockMvc.perform(post("/reviews/add")
+                        .with(user(principal)).with(csrf())
+                        .param("bookId", bookId.toString())
+                        .param("text", "Written on primary"))
+                .andExpect(status().is3xxRedirection());
+
+        // редирект после записи: реплика могла ещё не получить рецензию
+        mockMvc.perform(get("/books/{id}", bookId).with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Primary copy")))
+                .andExpect(content().string(containsString("Written on primary")));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.bookreview.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JdbcDataSource primary;
+    private JdbcDataSource replica0;
+    private JdbcDataSource replica1;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica0 = database("replica0");
+        replica1 = database("replica1");
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica0, replica1),
+                Duration.ofSeconds(5), Duration.ofSeconds(5), meterRegistry);
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        for (DataSource dataSource : List.of(primary, replica0, replica1)) {
+            try {
+                new JdbcTemplate(dataSource).execute("SHUTDOWN");
+            } catch (DataAccessException e) {
+                // реплику уже остановил тест
+            }
+        }
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldRotateReplicas() {
+        assertEquals("replica0", readOnly.execute(status -> node()));
+        assertEquals("replica1", readOnly.execute(status -> node()));
+        assertEquals("replica0", readOnly.execute(status -> node()));
+        assertEquals(3.0, meterRegistry.get("bookreview.datasource.routing").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    void readWriteTransactions_ShouldUsePrimary() {
+        assertEquals("primary", readWrite.execute(status -> node()));
+        assertEquals("primary", node());
+    }
+
+    @Test
+    void unhealthyReplica_ShouldBeSkipped() {
+        new JdbcTemplate(replica0).execute("SHUTDOWN");
+        routing.checkReplicas();
+
+        assertEquals("replica1", readOnly.execute(status -> node()));
+        assertEquals("replica1", readOnly.execute(status -> node()));
+        assertEquals(0.0, meterRegistry.get("bookreview.datasource.replica.healthy").tag("replica", "replica-0").gauge().value());
+    }
+
+    @Test
+    void noHealthyReplicas_ShouldFallBackToPrimary() {
+        new JdbcTemplate(replica0).execute("SHUTDOWN");
+        new JdbcTemplate(replica1).execute("SHUTDOWN");
+        routing.checkReplicas();
+
+        assertEquals("primary", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void readAfterWrite_ShouldStayOnPrimaryForSameUser() throws Exception {
+        // запись идёт read-write транзакцией прямо в primary, маршрутизация её не видит
+        MockHttpServletRequest post = bindRequest("POST", "reader");
+        RecentWriterInterceptor interceptor = new RecentWriterInterceptor(routing);
+        interceptor.preHandle(post, new MockHttpServletResponse(), new Object());
+        assertEquals("primary", readWrite.execute(status -> node()));
+        interceptor.afterCompletion(post, new MockHttpServletResponse(), new Object(), null);
+
+        bindRequest("GET", "reader");
+        assertEquals("primary", readOnly.execute(status -> node()));
+
+        bindRequest("GET", "other");
+        assertEquals("replica0", readOnly.execute(status -> node()));
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private MockHttpServletRequest bindRequest(String method, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/books");
+        request.setUserPrincipal(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        return request;
+    }
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        // после SHUTDOWN база не создаётся заново, а соединение падает, как у недоступной реплики
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1;IFEXISTS=TRUE");
+        return dataSource;
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.bookreview.live;
+
+import com.example.bookreview.dto.CommentCreateDto;
+import com.example.bookreview.dto.ReviewDto;
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.entity.Review;
+import com.example.bookreview.entity.User;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.CommentRepository;
+import com.example.bookreview.repository.LikeRepository;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.security.UserPrincipal;
+import com.example.bookreview.service.CommentService;
+import com.example.bookreview.service.LikeService;
+import com.example.bookreview.service.ReviewService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.bookreview.live.BookEventHub.SEND_QUEUE_CAPACITY;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.sql.init.mode=never",
+        // отправку вызывает тест
+        "bookreview.live.flush-interval=1h"
+})
+@AutoConfigureMockMvc
+class BookEventHubTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookEventHub bookEventHub;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    private Long bookId;
+    private Long reviewId;
+    private UserPrincipal reader;
+    private UserPrincipal critic;
+
+    @BeforeEach
+    void seed() {
+        Book book = new Book();
+        book.setTitle("Live Book");
+        book.setAuthor("Live Author");
+        book.setIsActive(true);
+        bookId = bookRepository.save(book).getId();
+
+        User authorUser = userRepository.save(user("author"));
+        reader = principal(userRepository.save(user("reader")));
+        critic = principal(userRepository.save(user("critic")));
+
+        Review review = new Review();
+        review.setBook(book);
+        review.setUser(authorUser);
+        review.setText("Review");
+        review.setCreatedAt(LocalDateTime.now());
+        reviewId = reviewRepository.save(review).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookEventHub.shutdown();
+        likeRepository.deleteAllInBatch();
+        commentRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void subscriber_ShouldReceiveCoalescedLikesCommentsAndReviews() throws Exception {
+        MvcResult result = mockMvc.perform(get("/books/{id}/events", bookId))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // три переключения подряд: клиенту уходит только последнее значение
+        likeService.likeReview(reviewId, reader);
+        likeService.likeReview(reviewId, reader);
+        likeService.likeReview(reviewId, reader);
+        commentService.addComment(comment("Живой комментарий"), reader);
+        reviewService.addReview(bookId, critic, "Новая рецензия");
+        bookEventHub.flush();
+
+        String body = awaitBody(result, "Новая рецензия");
+        assertEquals(1, body.split("event:update", -1).length - 1);
+        assertTrue(body.contains("\"likes\":{\"" + reviewId + "\":1}"));
+        assertTrue(body.contains("Живой комментарий"));
+        assertTrue(body.contains("Новая рецензия"));
+
+        // пустой интервал ничего не отправляет
+        bookEventHub.flush();
+        assertEquals(body, result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void likes_ShouldCarryCommittedCountWhenEventsArriveLate() throws Exception {
+        MvcResult result = mockMvc.perform(get("/books/{id}/events", bookId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        likeService.likeReview(reviewId, reader);
+        likeService.likeReview(reviewId, critic);
+        // слушатель первого запроса отработал позже второго
+        bookEventHub.onLikeCountChanged(new LikeCountChanged(reviewId));
+        bookEventHub.flush();
+
+        awaitBody(result, "\"likes\":{\"" + reviewId + "\":2}");
+    }
+
+    @Test
+    void eventsForOtherBooks_ShouldNotBeSent() throws Exception {
+        Book other = new Book();
+        other.setTitle("Other Book");
+        other.setAuthor("Other Author");
+        other.setIsActive(true);
+        Long otherId = bookRepository.save(other).getId();
+
+        MvcResult result = mockMvc.perform(get("/books/{id}/events", otherId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        likeService.likeReview(reviewId, reader);
+        bookEventHub.flush();
+
+        assertFalse(result.getResponse().getContentAsString().contains("event:update"));
+    }
+
+    @Test
+    void subscribe_OverLimit_ShouldRejectWith503() {
+        BookEventHub hub = new BookEventHub(reviewRepository, 1, Duration.ofMinutes(1), Duration.ofHours(1),
+                new SimpleMeterRegistry());
+        try {
+            hub.subscribe(bookId);
+
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> hub.subscribe(bookId));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+            assertEquals(1, hub.getConnections());
+        } finally {
+            hub.shutdown();
+        }
+    }
+
+    @Test
+    void stalledClient_ShouldBeDroppedWithoutDelayingOthers() throws Exception {
+        BookEventHub hub = new BookEventHub(reviewRepository, 10, Duration.ofMinutes(1), Duration.ofHours(1),
+                new SimpleMeterRegistry());
+        StalledEmitter stalled = new StalledEmitter();
+        Semaphore delivered = new Semaphore(0);
+        SseEmitter healthy = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                delivered.release();
+            }
+        };
+        try {
+            hub.subscribe(bookId, stalled);
+            hub.subscribe(bookId, healthy);
+
+            // первое событие повисает в записи, следующие переполняют очередь зависшего клиента;
+            // второй подписчик получает каждое до следующего flush
+            publishAndFlush(hub, 0);
+            assertTrue(stalled.sending.await(5, TimeUnit.SECONDS));
+            assertTrue(delivered.tryAcquire(5, TimeUnit.SECONDS));
+            for (int i = 1; i < SEND_QUEUE_CAPACITY + 2; i++) {
+                publishAndFlush(hub, i);
+                assertTrue(delivered.tryAcquire(5, TimeUnit.SECONDS));
+            }
+
+            assertEquals(1, hub.getConnections());
+
+            // как только запись отпускает поток, соединение закрывается
+            stalled.release.countDown();
+            assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+        } finally {
+            stalled.release.countDown();
+            hub.shutdown();
+        }
+    }
+
+    // запись в соединения идёт на потоках live-send, а не в flush
+    private String awaitBody(MvcResult result, String expected) throws Exception {
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> result.getResponse().getContentAsString(StandardCharsets.UTF_8).contains(expected));
+        return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private void publishAndFlush(BookEventHub hub, long reviewId) {
+        hub.onReviewAdded(new ReviewAdded(bookId, ReviewDto.builder().id(reviewId).text("Review " + reviewId).build()));
+        hub.flush();
+    }
+
+    private CommentCreateDto comment(String text) {
+        CommentCreateDto dto = new CommentCreateDto();
+        dto.setReviewId(reviewId);
+        dto.setText(text);
+        return dto;
+    }
+
+    private UserPrincipal principal(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setRole("ROLE_USER");
+        return user;
+    }
+
+    // клиент, который перестал читать: запись блокируется, пока тест не отпустит её
+    private static class StalledEmitter extends SseEmitter {
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bookreview.metrics;
+
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.sql.init.mode=never")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class PrometheusMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void prometheus_ShouldExposeRequestServiceRepositoryPoolAndCacheMetrics() throws Exception {
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setIsActive(true);
+        Long bookId = bookRepository.save(book).getId();
+
+        mockMvc.perform(get("/books/" + bookId)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus").with(user(new UserPrincipal(1L, "admin", "secret", "ROLE_ADMIN"))))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "bookreview_http_sql_statements_count{method=\"GET\",uri=\"/books/{id}\"}")))
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"GET\"")))
+                .andExpect(content().string(containsString(
+                        "bookreview_service_seconds_bucket{class=\"com.example.bookreview.service.BookService\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")))
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"books\"")));
+    }
+
+    @Test
+    void prometheus_ShouldRequireAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(user(new UserPrincipal(2L, "reader", "secret", "ROLE_USER"))))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.bookreview.metrics;
+
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// порог 0 — в журнал попадает каждый запрос; буфер вмещает все запросы страницы книги
+@SpringBootTest(properties = {
+        "spring.sql.init.mode=never",
+        "bookreview.slow-query.threshold=0ms",
+        "bookreview.slow-query.capacity=20"
+})
+@AutoConfigureMockMvc
+class SlowQueryLogTest {
+
+    private static final UserPrincipal ADMIN = new UserPrincipal(1L, "admin", "secret", "ROLE_ADMIN");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void clear() {
+        slowQueryLog.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void slowQueries_ShouldKeepParametersAndOriginWithinCapacity() throws Exception {
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setIsActive(true);
+        Long bookId = bookRepository.save(book).getId();
+        slowQueryLog.clear();
+
+        mockMvc.perform(get("/books/" + bookId)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/slowqueries").with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.thresholdMillis").value(0))
+                .andExpect(jsonPath("$.queries.length()").value(lessThanOrEqualTo(20)))
+                .andExpect(jsonPath("$.queries[*].origin").value(hasItem("service.ReviewService.getReviewPage")))
+                .andExpect(jsonPath("$.queries[*].parameters[0]").value(hasItem(bookId.intValue())));
+    }
+
+    @Test
+    void buffer_ShouldKeepSlowestQueriesWhenFasterOnesOverflowIt() {
+        SlowQueryLog log = new SlowQueryLog(Duration.ofMillis(200), 3, false);
+        log.record(query(30_000, "SELECT slowest"), null);
+        for (int i = 0; i < 10; i++) {
+            log.record(query(201, "SELECT burst " + i), null);
+        }
+        log.record(query(5_000, "SELECT slower"), null);
+
+        List<SlowQuery> snapshot = log.snapshot();
+        assertEquals(3, snapshot.size());
+        assertEquals("SELECT slowest", snapshot.get(0).getSql());
+        assertEquals("SELECT slower", snapshot.get(1).getSql());
+        assertEquals(201, snapshot.get(2).getElapsedMillis());
+        assertEquals(12, log.getRecorded());
+    }
+
+    @Test
+    void delete_ShouldClearBuffer() throws Exception {
+        bookRepository.count();
+
+        mockMvc.perform(delete("/actuator/slowqueries").with(user(ADMIN)).with(csrf()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/actuator/slowqueries").with(user(ADMIN)))
+                .andExpect(jsonPath("$.recorded").value(0))
+                .andExpect(jsonPath("$.queries.length()").value(0));
+    }
+
+    private static SlowQuery query(long elapsedMillis, String sql) {
+        return new SlowQuery(Instant.now(), elapsedMillis, sql, List.of(), 1, "test");
+    }
+}
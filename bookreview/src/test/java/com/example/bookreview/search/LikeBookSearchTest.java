@@ -0,0 +1,63 @@
+package com.example.bookreview.search;
+
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(showSql = false)
+class LikeBookSearchTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private BookSearch bookSearch;
+
+    @BeforeEach
+    void setUp() {
+        bookSearch = new LikeBookSearch(bookRepository);
+        bookRepository.save(book("Мастер и Маргарита", "Михаил Булгаков", true));
+        bookRepository.save(book("Собачье сердце", "Михаил Булгаков", true));
+        bookRepository.save(book("Война и мир", "Лев Толстой", true));
+        bookRepository.save(book("Master of the Game", "Sidney Sheldon", false));
+    }
+
+    @Test
+    void searchByTitleOrAuthor_ShouldFoldCyrillicCase() {
+        Page<Book> result = bookSearch.searchByTitleOrAuthor("мАСТЕР", PageRequest.of(0, 9, Sort.by("title")));
+
+        assertEquals(List.of("Мастер и Маргарита"), result.map(Book::getTitle).getContent());
+    }
+
+    @Test
+    void searchByTitleOrAuthor_ShouldMatchAuthorAndSkipInactive() {
+        Page<Book> result = bookSearch.searchByTitleOrAuthor("БУЛГАКОВ", PageRequest.of(0, 9, Sort.by("title")));
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(0, bookSearch.searchByTitleOrAuthor("sheldon", PageRequest.of(0, 9)).getTotalElements());
+    }
+
+    @Test
+    void searchByAuthor_ShouldMatchSubstring() {
+        Page<Book> result = bookSearch.searchByAuthor("толст", PageRequest.of(0, 9));
+
+        assertEquals(List.of("Война и мир"), result.map(Book::getTitle).getContent());
+    }
+
+    private Book book(String title, String author, boolean active) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setIsActive(active);
+        return book;
+    }
+}
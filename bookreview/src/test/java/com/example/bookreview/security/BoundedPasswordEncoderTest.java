@@ -0,0 +1,89 @@
+package com.example.bookreview.security;
+
+import com.example.bookreview.entity.User;
+import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedPasswordEncoderTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void shutdown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_ShouldRunOnHashingPool() {
+        encoder = new BoundedPasswordEncoder(4, 1, 4, Duration.ofSeconds(5), meterRegistry);
+
+        String hash = encoder.encode("secret1");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("secret1", hash));
+        assertFalse(encoder.matches("secret2", hash));
+        assertEquals(3, meterRegistry.get("bookreview.password.hashing").timers().stream()
+                .mapToLong(timer -> timer.count()).sum());
+    }
+
+    @Test
+    void upgradeEncoding_ShouldUpgradeOnlyWeakerHashes() {
+        encoder = new BoundedPasswordEncoder(5, 1, 4, Duration.ofSeconds(5), meterRegistry);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret1")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret1")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("secret1")));
+    }
+
+    @Test
+    void encode_WhenQueueWaitExceeded_ShouldRejectAndCount() {
+        encoder = new BoundedPasswordEncoder(12, 1, 1, Duration.ofMillis(1), meterRegistry);
+
+        assertThrows(AuthenticationServiceException.class, () -> encoder.encode("secret1"));
+        assertEquals(1.0, meterRegistry.get("bookreview.password.hashing.rejected").counter().count());
+    }
+
+    @Test
+    void authenticate_WithOutdatedCost_ShouldRehashPassword() {
+        encoder = new BoundedPasswordEncoder(5, 1, 4, Duration.ofSeconds(5), meterRegistry);
+
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("reader");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret1"));
+        user.setRole("ROLE_USER");
+        when(userRepository.findByUsername("reader")).thenReturn(Optional.of(user));
+
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("reader", "secret1"));
+
+        verify(userRepository).updatePassword(eq(7L), startsWith("$2a$05$"));
+    }
+}
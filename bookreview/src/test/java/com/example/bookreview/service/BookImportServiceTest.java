@@ -0,0 +1,142 @@
+package com.example.bookreview.service;
+
+import com.example.bookreview.dto.BookImportProgress;
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.security.UserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.sql.init.mode=never")
+@AutoConfigureMockMvc
+class BookImportServiceTest {
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importCsv_ShouldSkipDuplicatesReportInvalidRowsAndApplyDefaultCover() throws Exception {
+        Book existing = new Book();
+        existing.setTitle("Existing Book");
+        existing.setAuthor("Author");
+        existing.setIsActive(true);
+        bookRepository.save(existing);
+
+        String csv = """
+                title,author,description,coverUrl
+                New Book,Author A,"Описание, с запятой",http://example.com/a.jpg
+                existing book,Author B,,
+                Second Book,Author C,,
+                ,Author D,,
+                new book,Author E,,
+                """;
+
+        BookImportProgress result = bookImportService.importBooks(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BookImportService.Format.CSV, progress -> {});
+
+        assertTrue(result.isFinished());
+        assertEquals(5, result.getRows());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(1, result.getFailed());
+        assertEquals(5, result.getErrors().get(0).getLine());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("title:"));
+
+        List<Book> books = bookRepository.findAll();
+        assertEquals(3, books.size());
+        Book second = books.stream().filter(book -> book.getTitle().equals("Second Book")).findFirst().orElseThrow();
+        assertTrue(second.getCoverUrl().startsWith("https://"));
+        assertTrue(second.getIsActive());
+        assertTrue(books.stream().anyMatch(book -> "Описание, с запятой".equals(book.getDescription())));
+    }
+
+    @Test
+    void importNdjson_ShouldReportProgressPerBatchAndContinueAfterBadRow() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 1_200; i++) {
+            ndjson.append("{\"title\":\"Book ").append(i).append("\",\"author\":\"Author\"}\n");
+            if (i == 10) {
+                ndjson.append("{\"title\":{\"nested\":true},\"author\":\"Author\"}\n");
+            }
+        }
+
+        List<BookImportProgress> reports = new ArrayList<>();
+        BookImportProgress result = bookImportService.importBooks(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)),
+                BookImportService.Format.NDJSON, reports::add);
+
+        // два полных пакета по 500 и финальный отчёт
+        assertEquals(3, reports.size());
+        assertFalse(reports.get(0).isFinished());
+        assertEquals(1_200, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(12, reports.get(0).getErrors().get(0).getLine());
+        assertEquals(1_200, bookRepository.count());
+    }
+
+    @Test
+    void importEndpoint_ShouldStreamProgressLinesForAdmin() throws Exception {
+        String body = mockMvc.perform(post("/admin/books/import")
+                        .with(user(new UserPrincipal(1L, "admin", "secret", "ROLE_ADMIN"))).with(csrf())
+                        .contentType("text/csv")
+                        .content("title,author\nImported,Someone\n"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.trim().split("\n");
+        BookImportProgress last = objectMapper.readValue(lines[lines.length - 1], BookImportProgress.class);
+        assertTrue(last.isFinished());
+        assertEquals(1, last.getImported());
+    }
+
+    @Test
+    void importPage_ShouldCarryCsrfTokenForUpload() throws Exception {
+        mockMvc.perform(get("/admin/books/import")
+                        .with(user(new UserPrincipal(1L, "admin", "secret", "ROLE_ADMIN"))))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("data-csrf-token=")))
+                .andExpect(content().string(containsString("data-import-url=\"/admin/books/import\"")));
+    }
+
+    @Test
+    void importEndpoint_ShouldRequireAdmin() throws Exception {
+        mockMvc.perform(post("/admin/books/import")
+                        .with(user(new UserPrincipal(2L, "reader", "secret", "ROLE_USER"))).with(csrf())
+                        .contentType("text/csv")
+                        .content("title,author\nImported,Someone\n"))
+                .andExpect(status().isForbidden());
+    }
+}
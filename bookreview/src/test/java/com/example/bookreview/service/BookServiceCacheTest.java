@@ -0,0 +1,89 @@
+package com.example.bookreview.service;
+
+import com.example.bookreview.dto.BookCreateDto;
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class BookServiceCacheTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private Book createSampleBook() {
+        Book book = new Book();
+        book.setId(1L);
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setCoverUrl("http://example.com/cover.jpg");
+        book.setIsActive(true);
+        return book;
+    }
+
+    @Test
+    void getBookById_ShouldHitRepositoryOnlyOnce() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(createSampleBook()));
+
+        bookService.getBookById(1L);
+        bookService.getBookById(1L);
+
+        verify(bookRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getAllAuthors_ShouldBeEvictedByCreateBook() {
+        when(bookRepository.findAllActiveAuthors()).thenReturn(List.of("A")).thenReturn(List.of("A", "B"));
+        when(bookRepository.existsByTitleIgnoreCase(anyString())).thenReturn(false);
+
+        assertEquals(1, bookService.getAllAuthors().size());
+        assertEquals(1, bookService.getAllAuthors().size());
+
+        BookCreateDto dto = new BookCreateDto();
+        dto.setTitle("New Book");
+        dto.setAuthor("B");
+        bookService.createBook(dto);
+
+        assertEquals(2, bookService.getAllAuthors().size());
+        verify(bookRepository, times(2)).findAllActiveAuthors();
+    }
+
+    @Test
+    void updateBook_ShouldEvictCachedBook() {
+        Book book = createSampleBook();
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.findByTitleIgnoreCaseAndIdNot(anyString(), eq(1L))).thenReturn(Optional.empty());
+
+        bookService.getBookById(1L);
+
+        BookCreateDto dto = new BookCreateDto();
+        dto.setTitle("Updated Book");
+        dto.setAuthor("Test Author");
+        bookService.updateBook(1L, dto);
+
+        assertEquals("Updated Book", bookService.getBookById(1L).getTitle());
+    }
+}
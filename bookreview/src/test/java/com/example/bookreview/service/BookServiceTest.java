@@ -7,6 +7,7 @@ import com.example.bookreview.exception.BusinessException;
 import com.example.bookreview.exception.ResourceNotFoundException;
 import com.example.bookreview.mapper.BookMapper;
 import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.search.BookSearch;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -34,6 +35,9 @@ class BookServiceTest {
     @Mock
     private BookMapper bookMapper;
 
+    @Mock
+    private BookSearch bookSearch;
+
     @InjectMocks
     private BookService bookService;
 
@@ -122,6 +126,7 @@ class BookServiceTest {
         assertEquals(dto.getTitle(), existingBook.getTitle());
         assertEquals(dto.getAuthor(), existingBook.getAuthor());
         verify(bookRepository).save(existingBook);
+        verify(bookRepository).touchActivity(eq(bookId), any());
     }
 
     @Test
@@ -148,6 +153,7 @@ class BookServiceTest {
 
         assertFalse(book.getIsActive());
         verify(bookRepository).save(book);
+        verify(bookRepository).touchActivity(eq(bookId), any());
     }
 
     @Test
@@ -158,7 +164,7 @@ class BookServiceTest {
         Page<Book> bookPage = new PageImpl<>(Arrays.asList(createSampleBook()));
         BookDto bookDto = createSampleBookDto();
 
-        when(bookRepository.findByTitleOrAuthorContainingIgnoreCase(eq(query), any(Pageable.class)))
+        when(bookSearch.searchByTitleOrAuthor(eq(query), any(Pageable.class)))
                 .thenReturn(bookPage);
         when(bookMapper.toDto(any(Book.class))).thenReturn(bookDto);
 
@@ -166,7 +172,7 @@ class BookServiceTest {
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        verify(bookRepository).findByTitleOrAuthorContainingIgnoreCase(query, pageable);
+        verify(bookSearch).searchByTitleOrAuthor(query, pageable);
     }
 
     @Test
@@ -184,7 +190,7 @@ class BookServiceTest {
 
         assertNotNull(result);
         verify(bookRepository).findByIsActiveTrue(pageable);
-        verify(bookRepository, never()).findByAuthorContainingIgnoreCase(anyString(), any());
+        verify(bookSearch, never()).searchByAuthor(anyString(), any());
     }
 
     @Test
@@ -223,6 +229,6 @@ class BookServiceTest {
 
         assertNotNull(result);
         verify(bookRepository).findByIsActiveTrue(pageable);
-        verify(bookRepository, never()).findByTitleOrAuthorContainingIgnoreCase(anyString(), any());
+        verify(bookSearch, never()).searchByTitleOrAuthor(anyString(), any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.example.bookreview.service;
+
+import com.example.bookreview.dto.CommentCreateDto;
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.entity.Review;
+import com.example.bookreview.entity.User;
+import com.example.bookreview.exception.BusinessException;
+import com.example.bookreview.exception.ResourceNotFoundException;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.CommentRepository;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.sql.init.mode=never")
+class CommentServiceTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Long reviewId;
+    private UserPrincipal reader;
+
+    @BeforeEach
+    void seed() {
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setIsActive(true);
+        bookRepository.save(book);
+
+        User user = new User();
+        user.setUsername("reader");
+        user.setEmail("reader@example.com");
+        user.setPassword("secret");
+        user.setRole("ROLE_USER");
+        user = userRepository.save(user);
+        reader = new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+
+        Review review = new Review();
+        review.setBook(book);
+        review.setUser(user);
+        review.setText("Review");
+        review.setCreatedAt(LocalDateTime.now());
+        reviewId = reviewRepository.save(review).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        commentRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void addComment_ShouldSaveWithAuthorName() {
+        assertEquals("reader", commentService.addComment(comment(reviewId, "Text"), reader).getUserUsername());
+        assertEquals(1, commentRepository.count());
+    }
+
+    @Test
+    void addComment_MissingReview_ShouldThrowResourceNotFoundException() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> commentService.addComment(comment(reviewId + 100, "Text"), reader));
+    }
+
+    @Test
+    void addComment_TooLongText_ShouldThrowBusinessException() {
+        assertThrows(BusinessException.class,
+                () -> commentService.addComment(comment(reviewId, "x".repeat(1001)), reader));
+        assertEquals(0, commentRepository.count());
+    }
+
+    private CommentCreateDto comment(Long reviewId, String text) {
+        CommentCreateDto dto = new CommentCreateDto();
+        dto.setReviewId(reviewId);
+        dto.setText(text);
+        return dto;
+    }
+}
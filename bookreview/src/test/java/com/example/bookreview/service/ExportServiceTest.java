@@ -0,0 +1,160 @@
+package com.example.bookreview.service;
+
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.entity.Comment;
+import com.example.bookreview.entity.Review;
+import com.example.bookreview.entity.User;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.CommentRepository;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.security.UserPrincipal;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.sql.init.mode=never")
+@AutoConfigureMockMvc
+class ExportServiceTest {
+
+    private static final UserPrincipal ADMIN = new UserPrincipal(1L, "admin", "secret", "ROLE_ADMIN");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @BeforeEach
+    void seed() {
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setIsActive(true);
+        bookRepository.save(book);
+
+        for (int i = 0; i < 2; i++) {
+            User user = new User();
+            user.setUsername("reader" + i);
+            user.setEmail("reader" + i + "@example.com");
+            user.setPassword("secret");
+            user.setRole("ROLE_USER");
+            userRepository.save(user);
+
+            Review review = new Review();
+            review.setBook(book);
+            review.setUser(user);
+            review.setText("Review, \"quoted\" " + i);
+            review.setCreatedAt(LocalDateTime.of(2024, 1, 1 + i, 12, 0));
+            review.setLikesCount(i + 3);
+            reviewRepository.save(review);
+
+            Comment comment = new Comment();
+            comment.setReview(review);
+            comment.setUser(user);
+            comment.setText("Comment " + i);
+            comment.setCreatedAt(LocalDateTime.now());
+            commentRepository.save(comment);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        commentRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void exportReviewsCsv_ShouldWriteHeaderAndQuotedRows() throws Exception {
+        String csv = mockMvc.perform(get("/admin/export/reviews").param("format", "csv").with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"reviews.csv\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = csv.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,bookId,userId,username,text,likesCount,createdAt,updatedAt", lines[0]);
+        assertTrue(lines[1].contains(",reader0,\"Review, \"\"quoted\"\" 0\",3,2024-01-01T12:00:00,"));
+    }
+
+    @Test
+    void exportBooksNdjson_ShouldWriteOneObjectPerLine() throws Exception {
+        String ndjson = mockMvc.perform(get("/admin/export/books").with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertTrue(ndjson.endsWith("\n"));
+        String[] lines = ndjson.trim().split("\n");
+        assertEquals(1, lines.length);
+        JsonNode book = objectMapper.readTree(lines[0]);
+        assertEquals("Test Book", book.get("title").asText());
+        assertTrue(book.get("active").asBoolean());
+    }
+
+    @Test
+    void exportComments_ShouldNotLoadEntitiesIntoPersistenceContext() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        int managed = transactionTemplate.execute(status -> {
+            try {
+                assertEquals(2, exportService.exportComments(ExportService.Format.NDJSON, output));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+        });
+
+        assertEquals(0, managed);
+    }
+
+    @Test
+    void export_ShouldRequireAdmin() throws Exception {
+        mockMvc.perform(get("/admin/export/books").with(user(new UserPrincipal(2L, "reader", "secret", "ROLE_USER"))))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.bookreview.service;
+
+import com.example.bookreview.dto.BookCreateDto;
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.entity.Review;
+import com.example.bookreview.entity.User;
+import com.example.bookreview.exception.BusinessException;
+import com.example.bookreview.exception.ResourceNotFoundException;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.CommentRepository;
+import com.example.bookreview.repository.LikeRepository;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.sql.init.mode=never")
+class LikeServiceTest {
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    private Long bookId;
+    private Long reviewId;
+    private UserPrincipal author;
+    private UserPrincipal reader;
+
+    @BeforeEach
+    void seed() {
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setIsActive(true);
+        bookId = bookRepository.save(book).getId();
+
+        User authorUser = userRepository.save(user("author"));
+        author = principal(authorUser);
+        reader = principal(userRepository.save(user("reader")));
+
+        Review review = new Review();
+        review.setBook(book);
+        review.setUser(authorUser);
+        review.setText("Review");
+        review.setCreatedAt(LocalDateTime.now());
+        reviewId = reviewRepository.save(review).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        likeRepository.deleteAllInBatch();
+        commentRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void likeReview_ShouldToggleAndKeepCounterInSync() {
+        assertEquals(1, likeService.likeReview(reviewId, reader));
+        assertEquals(1, likeRepository.count());
+
+        assertEquals(0, likeService.likeReview(reviewId, reader));
+        assertEquals(0, likeRepository.count());
+        assertEquals(0, reviewRepository.findLikesCountById(reviewId).orElseThrow());
+    }
+
+    @Test
+    void likeReview_ShouldBumpBookVersion() {
+        long before = bookRepository.findVersionById(bookId).orElseThrow().version();
+
+        likeService.likeReview(reviewId, reader);
+        assertEquals(before + 1, bookRepository.findVersionById(bookId).orElseThrow().version());
+
+        assertThrows(BusinessException.class, () -> likeService.likeReview(reviewId, author));
+        assertEquals(before + 1, bookRepository.findVersionById(bookId).orElseThrow().version());
+    }
+
+    @Test
+    void bookEdit_AfterConcurrentLike_ShouldNotReuseVersion() {
+        long before = bookRepository.findVersionById(bookId).orElseThrow().version();
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // правка загрузила книгу до лайка, а записывает её после
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookRepository.findById(bookId).orElseThrow();
+            concurrent.executeWithoutResult(inner -> likeService.likeReview(reviewId, reader));
+            bookService.updateBook(bookId, edit("Edited Book"));
+        });
+
+        assertEquals(before + 2, bookRepository.findVersionById(bookId).orElseThrow().version());
+        assertEquals("Edited Book", bookRepository.findById(bookId).orElseThrow().getTitle());
+    }
+
+    @Test
+    void likeReview_OwnReview_ShouldThrowBusinessException() {
+        assertThrows(BusinessException.class, () -> likeService.likeReview(reviewId, author));
+        assertEquals(0, likeRepository.count());
+    }
+
+    @Test
+    void likeReview_MissingReview_ShouldThrowResourceNotFoundException() {
+        assertThrows(ResourceNotFoundException.class, () -> likeService.likeReview(reviewId + 100, reader));
+    }
+
+    private BookCreateDto edit(String title) {
+        BookCreateDto dto = new BookCreateDto();
+        dto.setTitle(title);
+        dto.setAuthor("Test Author");
+        return dto;
+    }
+
+    private UserPrincipal principal(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setRole("ROLE_USER");
+        return user;
+    }
+}
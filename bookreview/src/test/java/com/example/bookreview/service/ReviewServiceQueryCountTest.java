@@ -0,0 +1,184 @@
+package com.example.bookreview.service;
+
+import com.example.bookreview.dto.CommentDto;
+import com.example.bookreview.dto.CommentPage;
+import com.example.bookreview.dto.ReviewDto;
+import com.example.bookreview.dto.ReviewPage;
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.entity.Comment;
+import com.example.bookreview.entity.Like;
+import com.example.bookreview.entity.Review;
+import com.example.bookreview.entity.User;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.CommentRepository;
+import com.example.bookreview.repository.LikeRepository;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// data.sql описывает таблицы reviews/books, а сущности живут в review/book: схему строит Hibernate
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+class ReviewServiceQueryCountTest {
+
+    private static final int REVIEWS = 25;
+    private static final int REVIEWS_PER_PAGE = 10;
+    private static final int COMMENTS_PREVIEW = 3;
+    private static final int COMMENTS_PER_REVIEW = 5;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long bookId;
+    private Long readerId;
+
+    @BeforeEach
+    void seed() {
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setIsActive(true);
+        bookId = bookRepository.save(book).getId();
+
+        User reader = userRepository.save(user("reader"));
+        readerId = reader.getId();
+        for (int i = 0; i < REVIEWS; i++) {
+            User author = userRepository.save(user("author" + i));
+
+            Review review = new Review();
+            review.setBook(book);
+            review.setUser(author);
+            review.setText("Review " + i);
+            review.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            review.setLikesCount(1);
+            reviewRepository.save(review);
+
+            for (int j = 0; j < COMMENTS_PER_REVIEW; j++) {
+                Comment comment = new Comment();
+                comment.setReview(review);
+                comment.setUser(reader);
+                comment.setText("Comment " + j);
+                comment.setCreatedAt(LocalDateTime.now().plusSeconds(j));
+                commentRepository.save(comment);
+            }
+
+            Like like = new Like();
+            like.setReview(review);
+            like.setUser(reader);
+            likeRepository.save(like);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        likeRepository.deleteAllInBatch();
+        commentRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getReviewPage_Anonymous_ShouldUseFourStatementsAndNoEntities() {
+        Statistics statistics = resetStatistics();
+
+        ReviewPage page = reviewService.getReviewPage(bookId, null, null);
+
+        List<ReviewDto> reviews = page.getContent();
+        assertEquals(REVIEWS_PER_PAGE, reviews.size());
+        assertEquals(REVIEWS, page.getTotalCount());
+        assertNotNull(page.getNextCursor());
+        assertEquals("Review 0", reviews.get(0).getText());
+        assertEquals(COMMENTS_PREVIEW, reviews.get(0).getComments().size());
+        assertEquals(COMMENTS_PER_REVIEW, reviews.get(0).getCommentsCount());
+        assertEquals("Comment 2", reviews.get(0).getComments().get(0).getText());
+        assertEquals(1, reviews.get(0).getLikesCount());
+        // рецензии, комментарии, количество комментариев, общее число рецензий
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getReviewPage_WithUser_ShouldAddOneStatementForLikedFlags() {
+        Statistics statistics = resetStatistics();
+
+        ReviewPage page = reviewService.getReviewPage(bookId, readerId, null);
+
+        assertTrue(page.getContent().stream().allMatch(ReviewDto::isLiked));
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getReviewPage_WithCursor_ShouldWalkAllReviewsOnce() {
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            ReviewPage page = reviewService.getReviewPage(bookId, null, cursor);
+            page.getContent().forEach(review -> assertTrue(seen.add(review.getId())));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(REVIEWS, seen.size());
+    }
+
+    @Test
+    void getOlderComments_ShouldReturnCommentsBeforePreview() {
+        ReviewDto review = reviewService.getReviewPage(bookId, null, null).getContent().get(0);
+
+        CommentPage older = reviewService.getOlderComments(review.getId(), review.getOlderCommentsCursor());
+
+        assertEquals(List.of("Comment 0", "Comment 1"),
+                older.getContent().stream().map(CommentDto::getText).toList());
+        assertNull(older.getOlderCursor());
+    }
+
+    private Statistics resetStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setRole("ROLE_USER");
+        return user;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.bookreview.service;
+
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.entity.User;
+import com.example.bookreview.exception.BusinessException;
+import com.example.bookreview.exception.ResourceNotFoundException;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.sql.init.mode=never")
+class ReviewServiceTest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private Long bookId;
+    private UserPrincipal reader;
+
+    @BeforeEach
+    void seed() {
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setIsActive(true);
+        bookId = bookRepository.save(book).getId();
+
+        User user = new User();
+        user.setUsername("reader");
+        user.setEmail("reader@example.com");
+        user.setPassword("secret");
+        user.setRole("ROLE_USER");
+        user = userRepository.save(user);
+        reader = new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void addReview_Twice_ShouldBeRejectedByUniqueConstraint() {
+        assertEquals("reader", reviewService.addReview(bookId, reader, "First").getUsername());
+
+        assertThrows(BusinessException.class, () -> reviewService.addReview(bookId, reader, "Second"));
+        assertEquals(1, reviewRepository.count());
+    }
+
+    @Test
+    void addReview_MissingBook_ShouldThrowResourceNotFoundException() {
+        assertThrows(ResourceNotFoundException.class, () -> reviewService.addReview(bookId + 100, reader, "Text"));
+    }
+
+    @Test
+    void addReview_TooLongText_ShouldThrowBusinessException() {
+        assertThrows(BusinessException.class, () -> reviewService.addReview(bookId, reader, "x".repeat(1001)));
+        assertEquals(0, reviewRepository.count());
+    }
+
+    @Test
+    void updateReview_TooLongText_ShouldKeepOldText() {
+        Long reviewId = reviewService.addReview(bookId, reader, "First").getId();
+
+        assertThrows(BusinessException.class, () -> reviewService.updateReview(reviewId, reader, "x".repeat(1001)));
+        assertEquals("First", reviewRepository.findById(reviewId).orElseThrow().getText());
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.bookreview.sql;
+
+import com.example.bookreview.dto.ReviewDto;
+import com.example.bookreview.entity.Book;
+import com.example.bookreview.entity.Comment;
+import com.example.bookreview.entity.Like;
+import com.example.bookreview.entity.Review;
+import com.example.bookreview.entity.User;
+import com.example.bookreview.repository.BookRepository;
+import com.example.bookreview.repository.CommentRepository;
+import com.example.bookreview.repository.LikeRepository;
+import com.example.bookreview.repository.ReviewRepository;
+import com.example.bookreview.repository.UserRepository;
+import com.example.bookreview.security.UserPrincipal;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Бюджеты SQL-запросов на HTTP-запрос для эндпоинтов книг, рецензий, комментариев и лайков.
+ * Запросы считаются на уровне Hibernate StatementInspector вместе с рендерингом шаблона (open-in-view),
+ * поэтому ленивые загрузки из нового поля в шаблоне тоже превысят бюджет.
+ */
+@SpringBootTest(properties = "spring.sql.init.mode=never")
+@AutoConfigureMockMvc
+@Import(EndpointStatementBudgetTest.RecorderConfig.class)
+class EndpointStatementBudgetTest {
+
+    private static final int REVIEWS = 12;
+    private static final int COMMENTS_PER_REVIEW = 5;
+    private static final Map<String, String> SUMMARY = new TreeMap<>();
+
+    @TestConfiguration
+    static class RecorderConfig {
+
+        @Bean
+        SqlStatementRecorder sqlStatementRecorder() {
+            return new SqlStatementRecorder();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector(SqlStatementRecorder recorder) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, recorder);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementRecorder recorder;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    private Long bookId;
+    private Long reviewId;
+    private Long commentId;
+    private UserPrincipal admin;
+    private UserPrincipal reader;
+    private UserPrincipal author;
+
+    @BeforeEach
+    void seed() {
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setIsActive(true);
+        bookId = bookRepository.save(book).getId();
+
+        admin = principal(userRepository.save(newUser("admin", "ROLE_ADMIN")));
+        User readerUser = userRepository.save(newUser("reader", "ROLE_USER"));
+        reader = principal(readerUser);
+
+        for (int i = 0; i < REVIEWS; i++) {
+            User authorUser = userRepository.save(newUser("author" + i, "ROLE_USER"));
+
+            Review review = new Review();
+            review.setBook(book);
+            review.setUser(authorUser);
+            review.setText("Review " + i);
+            review.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            review.setLikesCount(1);
+            reviewRepository.save(review);
+
+            for (int j = 0; j < COMMENTS_PER_REVIEW; j++) {
+                Comment comment = new Comment();
+                comment.setReview(review);
+                comment.setUser(readerUser);
+                comment.setText("Comment " + j);
+                comment.setCreatedAt(LocalDateTime.now().plusSeconds(j));
+                commentId = commentRepository.save(comment).getId();
+            }
+
+            Like like = new Like();
+            like.setReview(review);
+            like.setUser(readerUser);
+            likeRepository.save(like);
+
+            if (i == 0) {
+                reviewId = review.getId();
+                author = principal(authorUser);
+            }
+        }
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        likeRepository.deleteAllInBatch();
+        commentRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @AfterAll
+    static void printSummary() {
+        System.out.printf("%-40s %6s %6s  %s%n", "endpoint", "sql", "budget", "shapes");
+        SUMMARY.values().forEach(System.out::println);
+    }
+
+    // BookController
+
+    @Test
+    void listBooks() throws Exception {
+        expectStatements("GET /books", 4, get("/books"));
+    }
+
+    @Test
+    void searchBooks() throws Exception {
+        expectStatements("GET /books?search", 3, get("/books").param("search", "test"));
+    }
+
+    @Test
+    void filterByAuthor() throws Exception {
+        expectStatements("GET /books?author", 3, get("/books").param("author", "Test Author"));
+    }
+
+    @Test
+    void viewBookAnonymous() throws Exception {
+        expectStatements("GET /books/{id} anonymous", 6, get("/books/" + bookId));
+    }
+
+    @Test
+    void viewBookAuthenticated() throws Exception {
+        expectStatements("GET /books/{id} user", 7, get("/books/" + bookId).with(user(reader)));
+    }
+
+    // условный GET: только чтение версии, без рецензий и рендеринга
+    @Test
+    void viewBookNotModified() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+        String etag = mockMvc.perform(get("/books/" + bookId).with(user(reader)).session(session))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        expectStatements("GET /books/{id} 304", 1, get("/books/" + bookId).with(user(reader)).session(session)
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+    }
+
+    @Test
+    void listBooksNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/books")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        expectStatements("GET /books 304", 1, get("/books").header(HttpHeaders.IF_NONE_MATCH, etag));
+    }
+
+    @Test
+    void loadMoreReviews() throws Exception {
+        String after = nextReviewsCursor();
+        expectStatements("GET /books/{id}/reviews", 3, get("/books/" + bookId + "/reviews").param("after", after));
+    }
+
+    @Test
+    void editBookForm() throws Exception {
+        expectStatements("GET /books/{id}/edit", 1, get("/books/" + bookId + "/edit").with(user(admin)));
+    }
+
+    @Test
+    void addBook() throws Exception {
+        expectStatements("POST /books/add", 2, post("/books/add").with(user(admin)).with(csrf())
+                .param("title", "New Book").param("author", "New Author"));
+    }
+
+    // правка книги поднимает версию страницы отдельным UPDATE version = version + 1
+    @Test
+    void updateBook() throws Exception {
+        expectStatements("POST /books/{id}/edit", 4, post("/books/" + bookId + "/edit").with(user(admin)).with(csrf())
+                .param("title", "Renamed").param("author", "Test Author"));
+    }
+
+    @Test
+    void deactivateBook() throws Exception {
+        expectStatements("POST /books/{id}/deactivate", 3,
+                post("/books/" + bookId + "/deactivate").with(user(admin)).with(csrf()));
+    }
+
+    // ReviewController
+
+    @Test
+    void olderComments() throws Exception {
+        String before = firstPageReviews().stream()
+                .filter(review -> review.getId().equals(reviewId))
+                .findFirst().orElseThrow()
+                .getOlderCommentsCursor();
+        expectStatements("GET /reviews/{id}/comments", 1, get("/reviews/" + reviewId + "/comments").param("before", before));
+    }
+
+    @Test
+    void addReview() throws Exception {
+        expectStatements("POST /reviews/add", 2, post("/reviews/add").with(user(reader)).with(csrf())
+                .param("bookId", bookId.toString()).param("text", "Another review"));
+    }
+
+    @Test
+    void updateReview() throws Exception {
+        expectStatements("POST /reviews/update", 3, post("/reviews/update").with(user(author)).with(csrf())
+                .param("reviewId", reviewId.toString()).param("text", "Edited"));
+    }
+
+    @Test
+    void deleteReview() throws Exception {
+        expectStatements("POST /reviews/{id}/delete", 6,
+                post("/reviews/" + reviewId + "/delete").with(user(admin)).with(csrf()));
+    }
+
+    // CommentController
+
+    @Test
+    void addComment() throws Exception {
+        expectStatements("POST /comments/add", 3, post("/comments/add").with(user(reader)).with(csrf())
+                .param("reviewId", reviewId.toString()).param("text", "Nice"));
+    }
+
+    // app.js: в ответ только фрагмент нового комментария, без поиска книги для редиректа
+    @Test
+    void addCommentFragment() throws Exception {
+        expectStatements("POST /comments/add xhr", 2, post("/comments/add").with(user(reader)).with(csrf())
+                .header("X-Requested-With", "XMLHttpRequest")
+                .param("reviewId", reviewId.toString()).param("text", "Nice"));
+    }
+
+    @Test
+    void deleteComment() throws Exception {
+        expectStatements("POST /comments/{id}/delete", 4,
+                post("/comments/" + commentId + "/delete").with(user(reader)).with(csrf()));
+    }
+
+    // LikeController
+
+    @Test
+    void toggleLike() throws Exception {
+        expectStatements("POST /likes/review/{id}", 5,
+                post("/likes/review/" + reviewId).with(user(reader)).with(csrf()));
+    }
+
+    // app.js: лайк через JSON API, без повторной загрузки рецензии для редиректа
+    @Test
+    void toggleLikeApi() throws Exception {
+        expectStatements("POST /api/v1/reviews/{id}/like", 4, post("/api/v1/reviews/" + reviewId + "/like")
+                .with(user(reader)).contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private void expectStatements(String endpoint, int budget, RequestBuilder request) throws Exception {
+        recorder.start();
+        ResultActions result;
+        try {
+            result = mockMvc.perform(request);
+        } finally {
+            List<String> statements = recorder.stop();
+            SUMMARY.put(endpoint, String.format("%-40s %6d %6d  %s",
+                    endpoint, statements.size(), budget, SqlStatementRecorder.shapes(statements)));
+            assertTrue(statements.size() <= budget, endpoint + ": " + statements.size()
+                    + " statements, budget " + budget + "\n" + String.join("\n", statements));
+        }
+        result.andExpect(response -> assertTrue(response.getResponse().getStatus() < 400,
+                endpoint + ": HTTP " + response.getResponse().getStatus()));
+    }
+
+    private String nextReviewsCursor() throws Exception {
+        return (String) bookPageModel().get("nextReviewsCursor");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ReviewDto> firstPageReviews() throws Exception {
+        return (List<ReviewDto>) bookPageModel().get("reviews");
+    }
+
+    private Map<String, Object> bookPageModel() throws Exception {
+        return Objects.requireNonNull(mockMvc.perform(get("/books/" + bookId)).andReturn().getModelAndView()).getModel();
+    }
+
+    private UserPrincipal principal(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+
+    private User newUser(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bookreview.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Записывает SQL, который Hibernate отправляет в базу, между start() и stop()
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final Pattern VERB = Pattern.compile("^\\s*(select|insert|update|delete|with)\\b");
+    private static final Pattern TABLE = Pattern.compile("\\b(?:from|into|update)\\s+(\\w+)");
+
+    private final List<String> statements = new ArrayList<>();
+    private boolean recording;
+
+    @Override
+    public synchronized String inspect(String sql) {
+        if (recording) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public synchronized void start() {
+        statements.clear();
+        recording = true;
+    }
+
+    public synchronized List<String> stop() {
+        recording = false;
+        return List.copyOf(statements);
+    }
+
+    // "select review" / "insert comments": глагол и первая таблица, без параметров и алиасов
+    public static String shapeOf(String sql) {
+        String normalized = sql.toLowerCase(Locale.ROOT).trim();
+        Matcher verb = VERB.matcher(normalized);
+        String kind = verb.find() ? verb.group(1) : "other";
+        Matcher table = TABLE.matcher(normalized);
+        return table.find() ? kind + " " + table.group(1) : kind;
+    }
+
+    public static Map<String, Integer> shapes(List<String> statements) {
+        Map<String, Integer> shapes = new LinkedHashMap<>();
+        for (String sql : statements) {
+            shapes.merge(shapeOf(sql), 1, Integer::sum);
+        }
+        return shapes;
+    }
+}